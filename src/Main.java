@@ -1,31 +1,123 @@
 import java.io.BufferedReader;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import core.Board;
+import core.CostModel;
 import core.GameState;
+import core.Log;
+import core.SolutionWriter;
 import algorithm.AStar;
+import algorithm.AnytimeAStar;
 import algorithm.Dijkstra;
+import algorithm.ExternalBFS;
 import algorithm.GBFS;
-import algorithm.UCS;
+import algorithm.OffHeapStateSet;
+import algorithm.PortfolioSolver;
+import algorithm.PortfolioStats;
+import algorithm.SearchLimits;
+import algorithm.SearchResult;
+import algorithm.SolutionOptimizer;
+import algorithm.Solver;
+import algorithm.Solvers;
+import algorithm.StateSet;
 
 public class Main {
-    private static final String[] VALID_ALGORITHMS = {"astar", "dijkstra", "gbfs", "ucs"};
-    private static final String[] VALID_HEURISTICS = {"manhattan", "blocking", "combined"};
+    private static final String[] VALID_ALGORITHMS = {"astar", "compact", "anytime", "dijkstra", "gbfs", "ucs", "portfolio",
+            "external"};
+    private static final String[] VALID_HEURISTICS = {"manhattan", "blocking", "combined", "admissible", "pattern"};
+    
+    private static PortfolioSolver.Mode portfolioMode = PortfolioSolver.Mode.FIRST;
+    private static Path portfolioStatsFile = null;
+    private static Path externalWorkDir = Paths.get(System.getProperty("java.io.tmpdir"));
+    private static long externalRamBudgetMb = 256;
+    private static StateSet.Factory closedSetFactory = null;
+    private static boolean optimizeSolution = false;
+    private static CostModel costModel = CostModel.MOVES;
+    private static String solutionOutput = null;
+    private static SolutionWriter.Format solutionFormat = SolutionWriter.Format.COMPACT;
+    private static String puzzleName = null;
     
     public static void main(String[] args) {
+        String filepath = "test/test1.txt";
+        long timeLimitMillis = 0;
+        long maxNodes = 0;
+        long maxMemoryMb = 0;
+        
         try {
-            if (args.length > 0) {
-                runPuzzleFromFile(args[0]);
-            } else {
-                runPuzzleFromFile("test/test1.txt");
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--time-limit":
+                        timeLimitMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--max-nodes":
+                        maxNodes = Long.parseLong(args[++i]);
+                        break;
+                    case "--max-memory":
+                        maxMemoryMb = Long.parseLong(args[++i]);
+                        break;
+                    case "--portfolio-mode":
+                        portfolioMode = PortfolioSolver.Mode.valueOf(args[++i].toUpperCase());
+                        break;
+                    case "--portfolio-stats":
+                        portfolioStatsFile = Paths.get(args[++i]);
+                        break;
+                    case "--work-dir":
+                        externalWorkDir = Paths.get(args[++i]);
+                        break;
+                    case "--ram-budget":
+                        externalRamBudgetMb = Long.parseLong(args[++i]);
+                        break;
+                    case "--closed-set":
+                        closedSetFactory = parseClosedSet(args[++i]);
+                        break;
+                    case "--optimize":
+                        optimizeSolution = true;
+                        break;
+                    case "--cost":
+                        costModel = CostModel.fromName(args[++i]);
+                        break;
+                    case "--solution-out":
+                        solutionOutput = args[++i];
+                        break;
+                    case "--solution-format":
+                        solutionFormat = SolutionWriter.Format.fromName(args[++i]);
+                        break;
+                    case "--quiet":
+                        Log.setLevel(Log.Level.QUIET);
+                        break;
+                    case "--verbose":
+                        Log.setLevel(Log.Level.DEBUG);
+                        break;
+                    case "--log-level":
+                        Log.setLevel(Log.Level.fromName(args[++i]));
+                        break;
+                    default:
+                        filepath = args[i];
+                        break;
+                }
             }
-        } catch (IOException e) {
-            System.out.println("Error loading board: " + e.getMessage());
-            e.printStackTrace();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: Main [file] [--time-limit ms] [--max-nodes n] [--max-memory mb]"
+                    + " [--portfolio-mode first|best] [--portfolio-stats file]"
+                    + " [--work-dir dir] [--ram-budget mb] [--closed-set heap|direct|file]"
+                    + " [--optimize] [--cost moves|cells]"
+                    + " [--solution-out file] [--solution-format human|compact|json|binary]"
+                    + " [--quiet | --verbose | --log-level quiet|error|info|debug]");
+            return;
+        }
+        
+        try {
+            runPuzzleFromFile(filepath, new SearchLimits(timeLimitMillis, maxNodes, maxMemoryMb * 1024 * 1024));
+        } catch (IOException | IllegalArgumentException e) {
+            Log.error("Error loading board: " + e.getMessage(), e);
         }
     }
     
-    private static void runPuzzleFromFile(String filepath) throws IOException {
+    private static void runPuzzleFromFile(String filepath, SearchLimits limits) throws IOException {
+        puzzleName = filepath;
         BufferedReader reader = new BufferedReader(new FileReader(filepath));
         
         StringBuilder boardConfigBuilder = new StringBuilder();
@@ -67,7 +159,7 @@ public class Main {
         
         if (!validAlgorithm) {
             algorithm = "astar"; 
-            System.out.println("Invalid or no algorithm specified, using A* as default.");
+            Log.info("Invalid or no algorithm specified, using A* as default.");
         }
         
         boolean validHeuristic = false;
@@ -80,115 +172,207 @@ public class Main {
         
         if (!validHeuristic) {
             heuristic = "manhattan"; 
-            System.out.println("Invalid or no heuristic specified, using Manhattan distance as default.");
+            Log.info("Invalid or no heuristic specified, using Manhattan distance as default.");
         }
         
         if (algorithm.equals("ucs")) {
-            System.out.println("Note: UCS does not use heuristic functions, ignoring heuristic setting.");
+            Log.info("Note: UCS does not use heuristic functions, ignoring heuristic setting.");
         }
         
-        java.io.File tempFile = java.io.File.createTempFile("rushHourBoard", ".txt");
-        tempFile.deleteOnExit();
-        
-        java.io.FileWriter writer = new java.io.FileWriter(tempFile);
-        writer.write(boardConfigBuilder.toString());
-        writer.close();
+        Board board = Board.parse(boardConfigBuilder.toString());
         
-        Board board = new Board(tempFile.getAbsolutePath());
-        
-        System.out.println("=== Puzzle Configuration ===");
-        System.out.println("Algorithm: " + algorithm);
-        if (!algorithm.equals("ucs")) {
-            System.out.println("Heuristic: " + heuristic);
+        if (Log.isInfo()) {
+            System.out.println("=== Puzzle Configuration ===");
+            System.out.println("Algorithm: " + algorithm);
+            if (!algorithm.equals("ucs")) {
+                System.out.println("Heuristic: " + heuristic);
+            }
+            System.out.println("\nInitial Board:");
+            board.printBoard(null);
         }
-        System.out.println("\nInitial Board:");
-        board.printBoard(null);
         
-        runAlgorithm(algorithm, heuristic, board);
+        runAlgorithm(algorithm, heuristic, board, limits);
     }
     
-    private static void runAlgorithm(String algorithm, String heuristic, Board board) {
-        if (!algorithm.equals("ucs")) {
-            System.out.println("\n=== Running " + algorithm.toUpperCase() + " with " + heuristic + " heuristic ===");
-        } else {
-            System.out.println("\n=== Running " + algorithm.toUpperCase() + " ===");
+    private static void runAlgorithm(String algorithm, String heuristic, Board board, SearchLimits limits) {
+        if (Log.isInfo()) {
+            if (!algorithm.equals("ucs")) {
+                System.out.println("\n=== Running " + algorithm.toUpperCase() + " with " + heuristic + " heuristic ===");
+            } else {
+                System.out.println("\n=== Running " + algorithm.toUpperCase() + " ===");
+            }
+            if (!limits.isUnlimited()) {
+                System.out.println("Limits: " + limits);
+            }
+            if (costModel != CostModel.MOVES) {
+                System.out.println("Cost model: " + costModel.name().toLowerCase());
+            }
+        }
+        
+        // Same rule as the solver service: no quiet fallback to counting moves
+        if (costModel != CostModel.MOVES && !Solvers.supportsCostModel(algorithm)) {
+            System.out.println("Algorithm " + algorithm + " only supports the moves cost model");
+            return;
         }
         
-        GameState solution = null;
+        Solver solver;
         
         switch (algorithm) {
             case "astar":
-                AStar astar = new AStar(heuristic);
-                solution = astar.solve(board);
-                
-                if (solution != null) {
-                    System.out.println("Solution found with " + solution.getMoves().size() + " steps");
-                    System.out.println("Nodes visited: " + astar.getNodesVisited());
-                    System.out.println("Execution time: " + astar.getExecutionTime());
-                    System.out.println("\nSolution path:");
-                    astar.printSolution(solution);
-                } else {
-                    System.out.println("No solution found!");
-                    System.out.println("Nodes visited: " + astar.getNodesVisited());
-                    System.out.println("Execution time: " + astar.getExecutionTime());
-                }
-                break;
-                
+            case "compact":
             case "dijkstra":
-                Dijkstra dijkstra = new Dijkstra();
-                solution = dijkstra.solve(board);
-                
-                if (solution != null) {
-                    System.out.println("Solution found with " + solution.getMoves().size() + " steps");
-                    System.out.println("Nodes visited: " + dijkstra.getNodesVisited());
-                    System.out.println("Execution time: " + dijkstra.getExecutionTime());
-                    System.out.println("\nSolution path:");
-                    dijkstra.printSolution(solution);
-                } else {
-                    System.out.println("No solution found!");
-                    System.out.println("Nodes visited: " + dijkstra.getNodesVisited());
-                    System.out.println("Execution time: " + dijkstra.getExecutionTime());
-                }
-                break;
-
             case "gbfs":
-                GBFS gbfs = new GBFS(heuristic);
-                solution = gbfs.solve(board);
-                
-                if (solution != null) {
-                    System.out.println("Solution found with " + solution.getMoves().size() + " steps");
-                    System.out.println("Nodes visited: " + gbfs.getNodesVisited());
-                    System.out.println("Execution time: " + gbfs.getExecutionTime());
-                    System.out.println("\nSolution path:");
-                    gbfs.printSolution(solution);
-                } else {
-                    System.out.println("No solution found!");
-                    System.out.println("Nodes visited: " + gbfs.getNodesVisited());
-                    System.out.println("Execution time: " + gbfs.getExecutionTime());
-                }
-                break;
-                
             case "ucs":
-                UCS ucs = new UCS();
-                solution = ucs.solve(board);
-                
-                if (solution != null) {
-                    System.out.println("Solution found with " + solution.getMoves().size() + " steps");
-                    System.out.println("Nodes visited: " + ucs.getNodesVisited());
-                    System.out.println("Execution time: " + ucs.getExecutionTime());
-                    System.out.println("\nSolution path:");
-                    ucs.printSolution(solution);
-                } else {
-                    System.out.println("No solution found!");
-                    System.out.println("Nodes visited: " + ucs.getNodesVisited());
-                    System.out.println("Execution time: " + ucs.getExecutionTime());
-                }
+                solver = Solvers.create(algorithm, heuristic, costModel);
+                break;
+            case "anytime":
+                AnytimeAStar anytime = new AnytimeAStar(heuristic);
+                anytime.addSolutionListener((solution, bound) ->
+                        Log.info("Improved solution: " + solution.getMoves().size()
+                                + " moves (bound " + bound + ")"));
+                solver = anytime;
+                break;
+            case "external":
+                solver = new ExternalBFS(externalWorkDir, externalRamBudgetMb * 1024 * 1024);
                 break;
-                
+            case "portfolio":
+                PortfolioStats stats = new PortfolioStats();
+                if (portfolioStatsFile != null) {
+                    loadPortfolioStats(stats);
+                }
+                PortfolioSolver portfolio = new PortfolioSolver(PortfolioSolver.defaultConfigurations(),
+                        portfolioMode, stats);
+                SearchResult portfolioResult = portfolio.solve(board, limits);
+                printResult(portfolio, portfolioResult);
+                if (portfolio.getWinner() != null) {
+                    Log.info("Winning configuration: " + portfolio.getWinner());
+                }
+                if (portfolioStatsFile != null) {
+                    savePortfolioStats(stats);
+                }
+                return;
             default:
                 System.out.println("Unknown algorithm: " + algorithm);
-                System.out.println("Available algorithms: astar, dijkstra, gbfs, ucs");
+                System.out.println("Available algorithms: astar, compact, anytime, dijkstra, gbfs, ucs, portfolio, external");
+                return;
+        }
+        
+        if (closedSetFactory != null) {
+            if (solver instanceof AStar) {
+                ((AStar) solver).setClosedSetFactory(closedSetFactory);
+            } else if (solver instanceof GBFS) {
+                ((GBFS) solver).setClosedSetFactory(closedSetFactory);
+            } else if (solver instanceof Dijkstra) {
+                ((Dijkstra) solver).setClosedSetFactory(closedSetFactory);
+            }
+        }
+        
+        SearchResult result = solver.solve(board, limits);
+        if (optimizeSolution && costModel != CostModel.MOVES) {
+            Log.info("Note: the post-optimizer counts moves, skipping it for the cells cost model.");
+        } else if (optimizeSolution && result.isSolved()) {
+            result = optimize(board, result);
+        }
+        printResult(solver, result);
+        if (solutionOutput != null && result.isSolved()) {
+            writeSolution(board, result.getSolution());
+        }
+    }
+    
+    private static void writeSolution(Board board, GameState solution) {
+        try (SolutionWriter writer = new SolutionWriter(new FileOutputStream(solutionOutput), solutionFormat)) {
+            writer.write(puzzleName, board, solution.getMoves());
+            Log.info("Solution written to " + solutionOutput);
+        } catch (IOException e) {
+            Log.error("Could not write solution: " + e.getMessage());
+        }
+    }
+    
+    private static SearchResult optimize(Board board, SearchResult result) {
+        long start = System.nanoTime();
+        GameState optimized = new SolutionOptimizer().optimize(board, result.getSolution());
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        if (Log.isInfo()) {
+            Log.info("Post-optimized: " + result.getSolution().getMoves().size() + " -> "
+                    + optimized.getMoves().size() + " moves in " + millis + " ms");
+        }
+        return SearchResult.solved(optimized, result.getNodesVisited(), result.getExecutionTime());
+    }
+    
+    // "heap" keeps the default HashSet, "direct" uses an off-heap buffer, anything else is a file to map
+    private static StateSet.Factory parseClosedSet(String value) {
+        switch (value) {
+            case "heap":
+                return null;
+            case "direct":
+                return OffHeapStateSet.factory(OffHeapStateSet.DEFAULT_INITIAL_CAPACITY,
+                        OffHeapStateSet.DEFAULT_MAX_LOAD, OffHeapStateSet.DEFAULT_GROWTH_FACTOR, null);
+            default:
+                return OffHeapStateSet.factory(OffHeapStateSet.DEFAULT_INITIAL_CAPACITY,
+                        OffHeapStateSet.DEFAULT_MAX_LOAD, OffHeapStateSet.DEFAULT_GROWTH_FACTOR, Paths.get(value));
+        }
+    }
+    
+    private static void loadPortfolioStats(PortfolioStats stats) {
+        try {
+            stats.load(portfolioStatsFile);
+        } catch (IOException | RuntimeException e) {
+            Log.error("Could not read portfolio stats: " + e.getMessage());
+        }
+    }
+    
+    private static void savePortfolioStats(PortfolioStats stats) {
+        try {
+            stats.save(portfolioStatsFile);
+        } catch (IOException e) {
+            Log.error("Could not write portfolio stats: " + e.getMessage());
+        }
+    }
+    
+    private static void printResult(Solver solver, SearchResult result) {
+        if (!Log.isInfo()) {
+            System.out.println(summaryLine(result));
+            return;
+        }
+        switch (result.getStatus()) {
+            case SOLVED:
+                System.out.println("Solution found with " + result.getSolution().getMoves().size() + " steps");
+                break;
+            case UNSOLVABLE:
+                System.out.println("No solution found!");
+                break;
+            case BUDGET_EXCEEDED:
+                System.out.println("Search stopped: " + result.getExceededLimit() + " limit reached");
+                if (result.getBestState() != null) {
+                    System.out.println("Best partial path: " + result.getBestState().getMoves().size()
+                            + " moves, h=" + result.getBestState().getH());
+                }
+                break;
+        }
+        System.out.println("Nodes visited: " + result.getNodesVisited());
+        System.out.println("Execution time: " + result.getExecutionTime());
+        
+        if (result.isSolved()) {
+            System.out.println("\nSolution path:");
+            solver.printSolution(result.getSolution());
+        }
+    }
+    
+    // The one line printed per puzzle in quiet mode
+    private static String summaryLine(SearchResult result) {
+        StringBuilder line = new StringBuilder(puzzleName).append(": ");
+        switch (result.getStatus()) {
+            case SOLVED:
+                line.append("solved in ").append(result.getSolution().getMoves().size()).append(" moves");
+                break;
+            case UNSOLVABLE:
+                line.append("no solution");
+                break;
+            case BUDGET_EXCEEDED:
+                line.append(result.getExceededLimit()).append(" limit reached");
                 break;
         }
+        return line.append(", ").append(result.getNodesVisited()).append(" nodes, ")
+                .append(String.format("%.1f", result.getExecutionTime())).append(" ms").toString();
     }
-}
\ No newline at end of file
+}
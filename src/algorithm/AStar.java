@@ -1,16 +1,19 @@
 package algorithm;
 
 import core.Board;
+import core.CostModel;
 import core.GameState;
 import core.Move;
 
 import java.util.*;
 
-public class AStar {
+public class AStar implements Solver {
     private int nodesVisited;
     private double executionTime;
     private String heuristicName;
     private Board initialBoard; 
+    private StateSet.Factory closedSetFactory = HeapStateSet::new;
+    private CostModel costModel = CostModel.MOVES;
     
     public AStar(String heuristicName) {
         this.nodesVisited = 0;
@@ -18,85 +21,82 @@ public class AStar {
         this.heuristicName = heuristicName;
     }
     
-    public GameState solve(Board initialBoard) {
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
         nodesVisited = 0;
         this.initialBoard = initialBoard;
         long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+        StateKey keys = new StateKey(initialBoard);
+        StateSet closedSet = closedSetFactory.create(keys.getStateSize());
         
+        try {
+            return search(initialBoard, keys, closedSet, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        } finally {
+            closedSet.close();
+        }
+    }
+    
+    // Where visited states are stored; defaults to an on-heap HashSet
+    public void setClosedSetFactory(StateSet.Factory closedSetFactory) {
+        this.closedSetFactory = closedSetFactory;
+    }
+    
+    // How path cost is counted; defaults to one per move
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+    
+    private SearchResult search(Board initialBoard, StateKey keys, StateSet closedSet, SearchBudget budget,
+                                long startTime) {
         PriorityQueue<GameState> openSet = new PriorityQueue<>(Comparator.comparingDouble(GameState::getF));
         
-        Set<String> closedSet = new HashSet<>();
-        
-        Map<String, Double> bestGScore = new HashMap<>();
-        
-        GameState startState = new GameState(initialBoard, heuristicName);
+        GameState startState = new GameState(initialBoard, heuristicName, costModel);
         openSet.add(startState);
         
-        String startStateKey = getBoardKey(startState.getBoard());
-        bestGScore.put(startStateKey, 0.0);
-        
         while (!openSet.isEmpty()) {
             GameState current = openSet.poll();
+            // Cheaper paths are queued next to older entries instead of tracking g per state;
+            // the closed set drops whichever copy comes out second
+            if (!closedSet.add(keys.encode(current.getBoard()))) {
+                continue;
+            }
             nodesVisited++;
             
             if (current.isGoal()) {
                 executionTime = (System.nanoTime() - startTime) / 1_000_000.0; 
-                return current;
+                return SearchResult.solved(current, nodesVisited, executionTime);
             }
             
-            String currentKey = getBoardKey(current.getBoard());
-            
-            if (closedSet.contains(currentKey)) {
-                continue;
+            budget.track(current, current.getH(), current.getF());
+            budget.record(current, nodesVisited, openSet.size());
+            if (budget.isExhausted(nodesVisited)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return budget.exceeded(nodesVisited, executionTime);
             }
             
-            closedSet.add(currentKey);
-            
             List<GameState> successors = current.getSuccessors();
             
             for (GameState successor : successors) {
-                String successorKey = getBoardKey(successor.getBoard());
-                
-                if (closedSet.contains(successorKey)) {
-                    continue;
-                }
-                
-                double tentativeG = successor.getG();
-                
-                if (!bestGScore.containsKey(successorKey) || tentativeG < bestGScore.get(successorKey)) {
-                    bestGScore.put(successorKey, tentativeG);
-                    
-                    if (!isInOpenSet(openSet, successorKey)) {
-                        openSet.add(successor);
-                    }
+                if (!closedSet.contains(keys.encode(successor.getBoard()))) {
+                    openSet.add(successor);
                 }
             }
         }
         
         executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
-        return null;
-    }
-    
-    private boolean isInOpenSet(PriorityQueue<GameState> openSet, String key) {
-        for (GameState state : openSet) {
-            if (getBoardKey(state.getBoard()).equals(key)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private String getBoardKey(Board board) {
-        StringBuilder key = new StringBuilder();
-        char[][] grid = board.getGrid();
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getCols(); j++) {
-                key.append(grid[i][j]);
-            }
-        }
-        return key.toString();
+        return SearchResult.unsolvable(nodesVisited, executionTime);
     }
     
+    @Override
     public void printSolution(GameState solution) {
         if (solution == null) {
             System.out.println("Tidak ada solusi yang ditemukan!");
@@ -119,14 +119,19 @@ public class AStar {
         }
         
         System.out.println("Solusi ditemukan dalam " + moves.size() + " langkah");
+        if (costModel == CostModel.CELLS) {
+            System.out.println("Total sel yang ditempuh: " + (int) solution.getG());
+        }
         System.out.println("Jumlah node yang diperiksa: " + nodesVisited);
         System.out.println("Waktu eksekusi: " + executionTime + " ms");
     }
     
+    @Override
     public int getNodesVisited() {
         return nodesVisited;
     }
     
+    @Override
     public double getExecutionTime() {
         return executionTime;
     }
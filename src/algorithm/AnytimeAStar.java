@@ -0,0 +1,256 @@
+package algorithm;
+
+import core.Board;
+import core.GameState;
+import core.Move;
+
+import java.util.*;
+
+public class AnytimeAStar implements Solver {
+
+    public interface SolutionListener {
+        void onImprovedSolution(GameState solution, double suboptimalityBound);
+    }
+
+    private static class Entry {
+        GameState state;
+        String key;
+        double priority;
+
+        Entry(GameState state, String key, double weight) {
+            this.state = state;
+            this.key = key;
+            this.priority = state.getG() + weight * state.getH();
+        }
+    }
+
+    private int nodesVisited;
+    private double executionTime;
+    private String heuristicName;
+    private Board initialBoard;
+    private double initialWeight;
+    private double weightStep;
+    private double suboptimalityBound;
+    private List<SolutionListener> solutionListeners = new ArrayList<>();
+
+    public AnytimeAStar(String heuristicName) {
+        this(heuristicName, 3.0, 0.5);
+    }
+
+    public AnytimeAStar(String heuristicName, double initialWeight, double weightStep) {
+        if (initialWeight < 1.0) {
+            throw new IllegalArgumentException("Initial weight must be at least 1");
+        }
+        if (weightStep <= 0) {
+            throw new IllegalArgumentException("Weight step must be positive");
+        }
+        this.nodesVisited = 0;
+        this.executionTime = 0.0;
+        this.heuristicName = heuristicName;
+        this.initialWeight = initialWeight;
+        this.weightStep = weightStep;
+    }
+
+    public void addSolutionListener(SolutionListener listener) {
+        solutionListeners.add(listener);
+    }
+
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
+        nodesVisited = 0;
+        suboptimalityBound = Double.POSITIVE_INFINITY;
+        this.initialBoard = initialBoard;
+        long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+
+        try {
+            return search(initialBoard, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        }
+    }
+
+    // ARA*: each round runs weighted A* with f = g + w*h, keeping g-values and the
+    // closed list between rounds so that only states whose cost improved are re-expanded.
+    private SearchResult search(Board initialBoard, SearchBudget budget, long startTime) {
+        Map<String, GameState> bestState = new HashMap<>();
+        Set<String> closedSet = new HashSet<>();
+        Map<String, GameState> inconsistent = new HashMap<>();
+
+        double weight = initialWeight;
+        PriorityQueue<Entry> openSet = new PriorityQueue<>(Comparator.comparingDouble(e -> e.priority));
+
+        GameState startState = new GameState(initialBoard, heuristicName);
+        String startKey = getBoardKey(startState.getBoard());
+        bestState.put(startKey, startState);
+
+        GameState incumbent = startState.isGoal() ? startState : null;
+        GameState published = null;
+        openSet.add(new Entry(startState, startKey, weight));
+
+        while (true) {
+            while (!openSet.isEmpty()) {
+                Entry top = openSet.peek();
+                if (incumbent != null && incumbent.getG() <= top.priority) {
+                    break;
+                }
+                openSet.poll();
+
+                if (bestState.get(top.key) != top.state || closedSet.contains(top.key)) {
+                    continue;
+                }
+                closedSet.add(top.key);
+                nodesVisited++;
+
+                budget.track(top.state, top.state.getH(), top.priority);
+                budget.record(top.state, nodesVisited, openSet.size());
+                if (budget.isExhausted(nodesVisited)) {
+                    executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                    if (incumbent != null) {
+                        publish(incumbent, published, openSet, inconsistent, bestState, weight, budget);
+                        return SearchResult.solved(incumbent, nodesVisited, executionTime);
+                    }
+                    return budget.exceeded(nodesVisited, executionTime);
+                }
+
+                for (GameState successor : top.state.getSuccessors()) {
+                    String successorKey = getBoardKey(successor.getBoard());
+                    GameState previous = bestState.get(successorKey);
+                    if (previous != null && previous.getG() <= successor.getG()) {
+                        continue;
+                    }
+                    bestState.put(successorKey, successor);
+
+                    if (successor.isGoal()) {
+                        if (incumbent == null || successor.getG() < incumbent.getG()) {
+                            incumbent = successor;
+                        }
+                        continue;
+                    }
+
+                    if (closedSet.contains(successorKey)) {
+                        inconsistent.put(successorKey, successor);
+                    } else {
+                        openSet.add(new Entry(successor, successorKey, weight));
+                    }
+                }
+            }
+
+            if (incumbent == null) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return SearchResult.unsolvable(nodesVisited, executionTime);
+            }
+
+            publish(incumbent, published, openSet, inconsistent, bestState, weight, budget);
+            published = incumbent;
+
+            if (weight <= 1.0 || suboptimalityBound <= 1.0) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return SearchResult.solved(incumbent, nodesVisited, executionTime);
+            }
+
+            weight = Math.max(1.0, weight - weightStep);
+
+            PriorityQueue<Entry> nextOpen = new PriorityQueue<>(Comparator.comparingDouble(e -> e.priority));
+            for (Entry entry : openSet) {
+                if (bestState.get(entry.key) == entry.state && !inconsistent.containsKey(entry.key)) {
+                    nextOpen.add(new Entry(entry.state, entry.key, weight));
+                }
+            }
+            for (Map.Entry<String, GameState> entry : inconsistent.entrySet()) {
+                nextOpen.add(new Entry(entry.getValue(), entry.getKey(), weight));
+            }
+            inconsistent.clear();
+            closedSet.clear();
+            openSet = nextOpen;
+        }
+    }
+
+    private void publish(GameState incumbent, GameState published, PriorityQueue<Entry> openSet,
+                         Map<String, GameState> inconsistent, Map<String, GameState> bestState, double weight,
+                         SearchBudget budget) {
+        double lowerBound = incumbent.getG();
+        for (Entry entry : openSet) {
+            if (bestState.get(entry.key) == entry.state) {
+                lowerBound = Math.min(lowerBound, entry.state.getG() + entry.state.getH());
+            }
+        }
+        for (GameState state : inconsistent.values()) {
+            lowerBound = Math.min(lowerBound, state.getG() + state.getH());
+        }
+        double bound = lowerBound > 0 ? incumbent.getG() / lowerBound : 1.0;
+        suboptimalityBound = Math.min(weight, bound);
+
+        if (incumbent != published) {
+            budget.reportSolution(incumbent);
+            for (SolutionListener listener : solutionListeners) {
+                listener.onImprovedSolution(incumbent, suboptimalityBound);
+            }
+        }
+    }
+
+    private String getBoardKey(Board board) {
+        StringBuilder key = new StringBuilder();
+        char[][] grid = board.getGrid();
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                key.append(grid[i][j]);
+            }
+        }
+        return key.toString();
+    }
+
+    @Override
+    public void printSolution(GameState solution) {
+        if (solution == null) {
+            System.out.println("Tidak ada solusi yang ditemukan!");
+            return;
+        }
+
+        System.out.println("Menggunakan heuristic: " + heuristicName);
+        System.out.println("Batas suboptimalitas: " + suboptimalityBound);
+
+        List<Move> moves = solution.getMoves();
+
+        System.out.println("Papan Awal");
+        initialBoard.printBoard(null);
+
+        Board currentBoard = initialBoard;
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            currentBoard = currentBoard.applyMove(move);
+            System.out.println("Gerakan " + (i + 1) + ": " + move);
+            currentBoard.printBoard(move);
+        }
+
+        System.out.println("Solusi ditemukan dalam " + moves.size() + " langkah");
+        System.out.println("Jumlah node yang diperiksa: " + nodesVisited);
+        System.out.println("Waktu eksekusi: " + executionTime + " ms");
+    }
+
+    // Upper bound on solution cost / optimal cost for the last published solution,
+    // assuming the heuristic is admissible; 1.0 means the solution is optimal
+    public double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    @Override
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public double getExecutionTime() {
+        return executionTime;
+    }
+
+    public String getHeuristicName() {
+        return heuristicName;
+    }
+}
@@ -0,0 +1,185 @@
+package algorithm;
+
+import core.Board;
+import core.BoardLayout;
+import core.GameState;
+import core.Move;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A* over packed states. Nodes live in a NodePool (parallel primitive arrays) and the open
+// list is a heap of int indices, so no Board, GameState or move list is created per node.
+// The GameState returned for a solution is rebuilt from the parent chain at the end.
+public class CompactAStar implements Solver {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int PATTERN_STATES = 200_000;
+
+    private int nodesVisited;
+    private double executionTime;
+    private String heuristicName;
+    private Board initialBoard;
+    private int poolSize;
+
+    public CompactAStar(String heuristicName) {
+        this.nodesVisited = 0;
+        this.executionTime = 0.0;
+        this.heuristicName = heuristicName;
+    }
+
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
+        nodesVisited = 0;
+        poolSize = 0;
+        this.initialBoard = initialBoard;
+        long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+
+        try {
+            return search(initialBoard, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        }
+    }
+
+    private SearchResult search(Board initialBoard, SearchBudget budget, long startTime) {
+        BoardLayout layout = new BoardLayout(initialBoard);
+        NodePool pool = new NodePool(layout.getStateSize(), INITIAL_CAPACITY);
+        NodeHeap openSet = new NodeHeap(pool);
+
+        // The "pattern" heuristic adds a pattern database on top of the admissible bound; states
+        // whose pattern cannot reach the exit are never queued
+        PatternDatabase patterns = "pattern".equalsIgnoreCase(heuristicName)
+                ? PatternDatabase.build(initialBoard, layout, PATTERN_STATES) : null;
+
+        byte[] start = layout.encode(initialBoard);
+        int startH = heuristic(layout, patterns, start);
+        if (startH == PatternDatabase.DEAD) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return SearchResult.unsolvable(nodesVisited, executionTime);
+        }
+        openSet.push(pool.add(start, NodePool.NO_PARENT, 0, startH, 0));
+
+        byte[] state = new byte[layout.getStateSize()];
+        while (!openSet.isEmpty()) {
+            int node = openSet.pop();
+            if (pool.isClosed(node)) {
+                continue;
+            }
+            pool.copyState(node, state);
+            if (pool.find(state) != node) {
+                // A cheaper path to this state was found after this entry was queued
+                continue;
+            }
+            pool.close(node);
+            nodesVisited++;
+
+            if (layout.isGoal(state)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                poolSize = pool.size();
+                return SearchResult.solved(rebuild(pool, layout, node), nodesVisited, executionTime);
+            }
+
+            if (budget.isExhausted(nodesVisited)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                poolSize = pool.size();
+                return budget.exceeded(nodesVisited, executionTime);
+            }
+
+            int successorG = pool.getG(node) + 1;
+            layout.forEachSuccessor(state, (successor, piece, delta) -> {
+                int existing = pool.find(successor);
+                if (existing >= 0 && (pool.isClosed(existing) || pool.getG(existing) <= successorG)) {
+                    return;
+                }
+                int h = existing >= 0 ? pool.getH(existing) : heuristic(layout, patterns, successor);
+                if (h == PatternDatabase.DEAD) {
+                    return;
+                }
+                openSet.push(pool.add(successor, node, successorG, h, NodePool.encodeMove(piece, delta)));
+            });
+        }
+
+        executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        poolSize = pool.size();
+        return SearchResult.unsolvable(nodesVisited, executionTime);
+    }
+
+    private int heuristic(BoardLayout layout, PatternDatabase patterns, byte[] state) {
+        int h = Heuristics.getHeuristic(layout, state, heuristicName);
+        if (patterns == null) {
+            return h;
+        }
+        int bound = patterns.lowerBound(state);
+        return bound == PatternDatabase.DEAD ? bound : Math.max(h, bound);
+    }
+
+    private GameState rebuild(NodePool pool, BoardLayout layout, int goal) {
+        List<Move> moves = new ArrayList<>();
+        for (int node = goal; pool.getParent(node) != NodePool.NO_PARENT; node = pool.getParent(node)) {
+            int code = pool.getMove(node);
+            moves.add(layout.toMove(NodePool.movePiece(code), NodePool.moveDelta(code)));
+        }
+        Collections.reverse(moves);
+
+        GameState state = new GameState(initialBoard, heuristicName);
+        for (Move move : moves) {
+            state = new GameState(state.getBoard().applyMove(move), state.getMoves(), move, state.getG(),
+                    heuristicName);
+        }
+        return state;
+    }
+
+    @Override
+    public void printSolution(GameState solution) {
+        if (solution == null) {
+            System.out.println("Tidak ada solusi yang ditemukan!");
+            return;
+        }
+
+        System.out.println("Menggunakan heuristic: " + heuristicName);
+
+        List<Move> moves = solution.getMoves();
+
+        System.out.println("Papan Awal");
+        initialBoard.printBoard(null);
+
+        Board currentBoard = initialBoard;
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            currentBoard = currentBoard.applyMove(move);
+            System.out.println("Gerakan " + (i + 1) + ": " + move);
+            currentBoard.printBoard(move);
+        }
+
+        System.out.println("Solusi ditemukan dalam " + moves.size() + " langkah");
+        System.out.println("Jumlah node yang diperiksa: " + nodesVisited);
+        System.out.println("Waktu eksekusi: " + executionTime + " ms");
+    }
+
+    // Nodes allocated in the pool by the last search, including duplicates superseded by cheaper paths
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    @Override
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public double getExecutionTime() {
+        return executionTime;
+    }
+
+    public String getHeuristicName() {
+        return heuristicName;
+    }
+}
@@ -0,0 +1,188 @@
+package algorithm;
+
+import core.Board;
+import core.Piece;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Finds boards that cannot be solved by looking at the pieces' lanes instead of searching.
+// The primary piece has to pass over every cell between it and the exit, so the puzzle is
+// unsolvable when one of those cells holds
+//   - a car in the primary piece's own lane, which can never get past it
+//   - a frozen car: one whose stretch of lane is packed full by cars of its own orientation,
+//     bounded by walls or other frozen cars
+//   - a crossing car that does not fit on either side of the primary lane within the room
+//     its own lane leaves it (walls, frozen cars and the cars queued in front of it)
+// Cars never change lanes or pass each other, so these conditions hold for every state
+// reachable from the board: checking the start state once is enough, and the search never
+// needs to repeat it per state.
+public final class DeadlockAnalyzer {
+    private DeadlockAnalyzer() {
+    }
+
+    public static boolean isUnsolvable(Board board) {
+        return analyze(board) != null;
+    }
+
+    // The result a solver returns up front when the board is deadlocked, or null when it has
+    // to search (no deadlock found, or the limits ask to skip the check)
+    static SearchResult check(Board board, SearchLimits limits, long startTime) {
+        if ((limits != null && !limits.isDeadlockCheckEnabled()) || !isUnsolvable(board)) {
+            return null;
+        }
+        return SearchResult.unsolvable(0, (System.nanoTime() - startTime) / 1_000_000.0);
+    }
+
+    // Why the board is unsolvable, or null if no deadlock was found (the board may still be
+    // unsolvable for reasons only a search can find)
+    public static String analyze(Board board) {
+        if (board.isSolved()) {
+            return null;
+        }
+        int rows = board.getRows();
+        int cols = board.getCols();
+        List<Piece> pieces = board.getPieces();
+        int[][] owner = new int[rows][cols];
+        for (int[] row : owner) {
+            Arrays.fill(row, -1);
+        }
+        Piece primary = null;
+        for (int i = 0; i < pieces.size(); i++) {
+            Piece piece = pieces.get(i);
+            for (int[] cell : piece.getOccupiedCells()) {
+                owner[cell[0]][cell[1]] = i;
+            }
+            if (piece.isPrimary()) {
+                primary = piece;
+            }
+        }
+        boolean[] frozen = findFrozen(pieces, owner, rows, cols);
+
+        // Cells the primary piece must cover on its way to the exit, walked along its lane
+        boolean horizontal = primary.isHorizontal();
+        int lane = horizontal ? primary.getRow() : primary.getCol();
+        int start = horizontal ? primary.getCol() : primary.getRow();
+        int end = start + primary.getSize() - 1;
+        int exit = horizontal ? board.getExitCol() : board.getExitRow();
+        int laneLength = horizontal ? cols : rows;
+        int from;
+        int to;
+        if (exit >= laneLength) {
+            from = end + 1;
+            to = laneLength - 1;
+        } else if (exit > end) {
+            from = end + 1;
+            to = exit;
+        } else {
+            from = exit;
+            to = start - 1;
+        }
+
+        for (int position = from; position <= to; position++) {
+            int r = horizontal ? lane : position;
+            int c = horizontal ? position : lane;
+            int index = owner[r][c];
+            if (index < 0) {
+                continue;
+            }
+            Piece blocker = pieces.get(index);
+            if (blocker.isHorizontal() == horizontal) {
+                return blocker.getId() + " shares the primary piece's lane and can never get out of its way";
+            }
+            if (frozen[index]) {
+                return blocker.getId() + " can never move and blocks the exit path";
+            }
+            if (!canClear(blocker, horizontal ? r : c, pieces, owner, frozen, rows, cols)) {
+                return blocker.getId() + " has no room to clear the primary piece's lane";
+            }
+        }
+        return null;
+    }
+
+    // A car is frozen when the stretch of its lane between walls and frozen crossing cars is
+    // exactly filled by cars of its orientation. Repeated until nothing changes, since one
+    // frozen car can shorten another's stretch.
+    private static boolean[] findFrozen(List<Piece> pieces, int[][] owner, int rows, int cols) {
+        boolean[] frozen = new boolean[pieces.size()];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < pieces.size(); i++) {
+                if (frozen[i]) {
+                    continue;
+                }
+                Piece piece = pieces.get(i);
+                int[] stretch = stretch(piece, owner, frozen, pieces, rows, cols);
+                int filled = 0;
+                for (int position = stretch[0]; position <= stretch[1]; position++) {
+                    int index = ownerAt(piece, position, owner);
+                    if (index >= 0 && pieces.get(index).isHorizontal() == piece.isHorizontal()) {
+                        filled++;
+                    }
+                }
+                if (filled == stretch[1] - stretch[0] + 1) {
+                    frozen[i] = true;
+                    changed = true;
+                }
+            }
+        }
+        return frozen;
+    }
+
+    // Whether the crossing car can get entirely to one side of the primary lane, given the
+    // cars of its own orientation ahead of it on that side, which it cannot pass
+    private static boolean canClear(Piece piece, int crossing, List<Piece> pieces, int[][] owner, boolean[] frozen,
+                                    int rows, int cols) {
+        int[] stretch = stretch(piece, owner, frozen, pieces, rows, cols);
+        int start = piece.isHorizontal() ? piece.getCol() : piece.getRow();
+        int end = start + piece.getSize() - 1;
+
+        int before = 0;
+        for (int position = stretch[0]; position < start; position++) {
+            int index = ownerAt(piece, position, owner);
+            if (index >= 0 && pieces.get(index).isHorizontal() == piece.isHorizontal()) {
+                before++;
+            }
+        }
+        int after = 0;
+        for (int position = end + 1; position <= stretch[1]; position++) {
+            int index = ownerAt(piece, position, owner);
+            if (index >= 0 && pieces.get(index).isHorizontal() == piece.isHorizontal()) {
+                after++;
+            }
+        }
+
+        boolean fitsBefore = before + piece.getSize() <= crossing - stretch[0];
+        boolean fitsAfter = piece.getSize() + after <= stretch[1] - crossing;
+        return fitsBefore || fitsAfter;
+    }
+
+    // First and last position along the piece's lane that it could ever share with other
+    // cars of its orientation: the lane up to the walls, cut short at cells of frozen crossing cars
+    private static int[] stretch(Piece piece, int[][] owner, boolean[] frozen, List<Piece> pieces,
+                                 int rows, int cols) {
+        int length = piece.isHorizontal() ? cols : rows;
+        int start = piece.isHorizontal() ? piece.getCol() : piece.getRow();
+        int end = start + piece.getSize() - 1;
+        int first = start;
+        while (first > 0 && !isFixedWall(piece, first - 1, owner, frozen, pieces)) {
+            first--;
+        }
+        int last = end;
+        while (last < length - 1 && !isFixedWall(piece, last + 1, owner, frozen, pieces)) {
+            last++;
+        }
+        return new int[] {first, last};
+    }
+
+    private static boolean isFixedWall(Piece piece, int position, int[][] owner, boolean[] frozen,
+                                       List<Piece> pieces) {
+        int index = ownerAt(piece, position, owner);
+        return index >= 0 && frozen[index] && pieces.get(index).isHorizontal() != piece.isHorizontal();
+    }
+
+    private static int ownerAt(Piece piece, int position, int[][] owner) {
+        return piece.isHorizontal() ? owner[piece.getRow()][position] : owner[position][piece.getCol()];
+    }
+}
@@ -1,117 +1,100 @@
 package algorithm;
 
 import core.Board;
+import core.CostModel;
 import core.GameState;
 import core.Move;
 
 import java.util.*;
 
-public class Dijkstra {
+public class Dijkstra implements Solver {
     private int nodesVisited;
     private double executionTime;
     private Board initialBoard;
+    private StateSet.Factory closedSetFactory = HeapStateSet::new;
+    private CostModel costModel = CostModel.MOVES;
 
     public Dijkstra() {
         this.nodesVisited = 0;
         this.executionTime = 0.0;
     }
 
-    public GameState solve(Board initialBoard) {
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
         this.initialBoard = initialBoard;
         nodesVisited = 0;
         long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+        StateKey keys = new StateKey(initialBoard);
+        StateSet closedSet = closedSetFactory.create(keys.getStateSize());
         
+        try {
+            return search(initialBoard, keys, closedSet, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        } finally {
+            closedSet.close();
+        }
+    }
+    
+    // Where visited states are stored; defaults to an on-heap HashSet
+    public void setClosedSetFactory(StateSet.Factory closedSetFactory) {
+        this.closedSetFactory = closedSetFactory;
+    }
+    
+    // How path cost is counted; defaults to one per move
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+    
+    private SearchResult search(Board initialBoard, StateKey keys, StateSet closedSet, SearchBudget budget,
+                                long startTime) {
         PriorityQueue<GameState> openSet = new PriorityQueue<>(
             Comparator.comparingDouble(GameState::getG));
         
-        Set<String> closedSet = new HashSet<>();
-        
-        Map<String, Double> bestCost = new HashMap<>();
-        
-        GameState startState = new GameState(initialBoard);
+        GameState startState = new GameState(initialBoard, "manhattan", costModel);
         openSet.add(startState);
         
-        String startStateKey = getBoardKey(startState.getBoard());
-        bestCost.put(startStateKey, 0.0);
-        
         while (!openSet.isEmpty()) {
             GameState current = openSet.poll();
+            // A state may be queued once per path that reached it; only the cheapest is expanded
+            if (!closedSet.add(keys.encode(current.getBoard()))) {
+                continue;
+            }
             nodesVisited++;
             
-            String currentKey = getBoardKey(current.getBoard());
-            
             if (current.isGoal()) {
                 executionTime = (System.nanoTime() - startTime) / 1_000_000.0; 
-                return current;
+                return SearchResult.solved(current, nodesVisited, executionTime);
             }
             
-            if (closedSet.contains(currentKey)) {
-                continue;
+            budget.track(current, Heuristics.manhattanDistance(current.getBoard()), current.getG());
+            budget.record(current, nodesVisited, openSet.size());
+            if (budget.isExhausted(nodesVisited)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return budget.exceeded(nodesVisited, executionTime);
             }
             
-            closedSet.add(currentKey);
-            
             List<GameState> successors = current.getSuccessors();
             
             for (GameState successor : successors) {
-                String successorKey = getBoardKey(successor.getBoard());
-                
-                if (closedSet.contains(successorKey)) {
-                    continue;
-                }
-                
-                double newCost = successor.getG();
-                
-                if (!bestCost.containsKey(successorKey) || newCost < bestCost.get(successorKey)) {
-                    bestCost.put(successorKey, newCost);
-                    
-                    if (!isInOpenSet(openSet, successorKey)) {
-                        openSet.add(successor);
-                    } else {
-                        updateOpenSet(openSet, successor, successorKey);
-                    }
+                if (!closedSet.contains(keys.encode(successor.getBoard()))) {
+                    openSet.add(successor);
                 }
             }
         }
         
         executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
-        return null;
-    }
-    
-    private boolean isInOpenSet(PriorityQueue<GameState> openSet, String key) {
-        for (GameState state : openSet) {
-            if (getBoardKey(state.getBoard()).equals(key)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private void updateOpenSet(PriorityQueue<GameState> openSet, GameState newState, String key) {
-        List<GameState> tempStates = new ArrayList<>();
-        
-        while (!openSet.isEmpty()) {
-            GameState state = openSet.poll();
-            if (!getBoardKey(state.getBoard()).equals(key)) {
-                tempStates.add(state);
-            }
-        }
-        
-        openSet.addAll(tempStates);
-        openSet.add(newState);
-    }
-    
-    private String getBoardKey(Board board) {
-        StringBuilder key = new StringBuilder();
-        char[][] grid = board.getGrid();
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getCols(); j++) {
-                key.append(grid[i][j]);
-            }
-        }
-        return key.toString();
+        return SearchResult.unsolvable(nodesVisited, executionTime);
     }
     
+    @Override
     public void printSolution(GameState solution) {
         if (solution == null) {
             System.out.println("No solution found!");
@@ -132,14 +115,19 @@ public class Dijkstra {
         }
         
         System.out.println("Solusi ditemukan dalam " + moves.size() + " langkah");
+        if (costModel == CostModel.CELLS) {
+            System.out.println("Total sel yang ditempuh: " + (int) solution.getG());
+        }
         System.out.println("Jumlah node yang diperiksa: " + nodesVisited);
         System.out.println("Waktu eksekusi: " + executionTime + " ms");
     }
     
+    @Override
     public int getNodesVisited() {
         return nodesVisited;
     }
     
+    @Override
     public double getExecutionTime() {
         return executionTime;
     }
@@ -0,0 +1,571 @@
+package algorithm;
+
+import core.Board;
+import core.BoardLayout;
+import core.GameState;
+import core.Move;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+// Breadth-first search that keeps every layer on disk instead of in the heap, for boards whose
+// state space is too large for the other solvers. States are packed with BoardLayout (one byte
+// per piece). Successors of a layer are collected in a RAM buffer, sorted and spilled as runs;
+// the runs are then merged, deduplicated and filtered against the two previous layers (moves
+// are reversible, so a successor of layer d can only lie in d-1, d or d+1) into the next sorted
+// layer file. The path is recovered by binary-searching the layer files backwards from the goal.
+public class ExternalBFS implements Solver {
+    private static final long DEFAULT_RAM_BUDGET_BYTES = 256L * 1024 * 1024;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private final Path workDir;
+    private final long ramBudgetBytes;
+
+    private int nodesVisited;
+    private double executionTime;
+    private int depth;
+    private Board initialBoard;
+
+    public ExternalBFS() {
+        this(Paths.get(System.getProperty("java.io.tmpdir")), DEFAULT_RAM_BUDGET_BYTES);
+    }
+
+    public ExternalBFS(Path workDir, long ramBudgetBytes) {
+        if (ramBudgetBytes < 1024 * 1024) {
+            throw new IllegalArgumentException("RAM budget must be at least 1 MB");
+        }
+        this.workDir = workDir;
+        this.ramBudgetBytes = ramBudgetBytes;
+    }
+
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
+        nodesVisited = 0;
+        depth = 0;
+        this.initialBoard = initialBoard;
+        long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+
+        Path runDir = null;
+        try {
+            runDir = Files.createTempDirectory(workDir, "rush-hour-bfs-");
+            return search(initialBoard, runDir, budget, startTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        } finally {
+            if (runDir != null) {
+                deleteDirectory(runDir);
+            }
+        }
+    }
+
+    private SearchResult search(Board initialBoard, Path runDir, SearchBudget budget, long startTime)
+            throws IOException {
+        BoardLayout layout = new BoardLayout(initialBoard);
+        int recordSize = layout.getStateSize();
+        byte[] start = layout.encode(initialBoard);
+
+        if (layout.isGoal(start)) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return SearchResult.solved(replay(Collections.emptyList()), nodesVisited, executionTime);
+        }
+
+        List<Path> layers = new ArrayList<>();
+        Path firstLayer = layerFile(runDir, 0);
+        try (RecordWriter writer = new RecordWriter(firstLayer, recordSize, IO_BUFFER_BYTES)) {
+            writer.write(start);
+        }
+        layers.add(firstLayer);
+
+        // One run buffer for the whole search, filled again for every layer
+        int capacity = (int) Math.min(Integer.MAX_VALUE / recordSize, (ramBudgetBytes / 2) / recordSize);
+        RunBuilder runBuilder = new RunBuilder(runDir, recordSize, capacity);
+
+        while (true) {
+            Path current = layers.get(depth);
+            Path previous = depth > 0 ? layers.get(depth - 1) : null;
+
+            List<Path> runs = expandLayer(layout, current, runBuilder, budget);
+            if (runs == null) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return budget.exceeded(nodesVisited, executionTime);
+            }
+
+            Path next = layerFile(runDir, depth + 1);
+            byte[] goal = mergeLayer(layout, runs, previous, current, next);
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+
+            if (Files.size(next) == 0) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return SearchResult.unsolvable(nodesVisited, executionTime);
+            }
+            layers.add(next);
+            depth++;
+
+            if (goal != null) {
+                List<Move> moves = backtrack(layout, layers, goal);
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                GameState solution = replay(moves);
+                budget.reportSolution(solution);
+                return SearchResult.solved(solution, nodesVisited, executionTime);
+            }
+        }
+    }
+
+    // Returns the sorted, locally deduplicated runs holding every successor of the layer,
+    // or null when the search budget ran out
+    private List<Path> expandLayer(BoardLayout layout, Path layer, RunBuilder runs, SearchBudget budget)
+            throws IOException {
+        int recordSize = layout.getStateSize();
+        runs.reset();
+
+        byte[] state = new byte[recordSize];
+        try (RecordReader reader = new RecordReader(layer, recordSize, IO_BUFFER_BYTES)) {
+            while (reader.next(state)) {
+                nodesVisited++;
+                if (budget.isExhausted(nodesVisited)) {
+                    runs.discard();
+                    return null;
+                }
+                layout.forEachSuccessor(state, (successor, piece, delta) -> runs.add(successor));
+            }
+        }
+        runs.flush();
+        return new ArrayList<>(runs.files);
+    }
+
+    // K-way merge of the runs into the next layer, dropping duplicates and states already
+    // present in the previous or current layer. Returns the first goal state written, if any.
+    private byte[] mergeLayer(BoardLayout layout, List<Path> runs, Path previous, Path current, Path next)
+            throws IOException {
+        int recordSize = layout.getStateSize();
+        int streams = runs.size() + 3;
+        int bufferBytes = (int) Math.max(recordSize, Math.min(IO_BUFFER_BYTES, (ramBudgetBytes / 2) / streams));
+
+        PriorityQueue<RecordReader> heap = new PriorityQueue<>(
+                Comparator.comparing(RecordReader::current, ExternalBFS::compareRecords));
+        List<RecordReader> readers = new ArrayList<>();
+        byte[] goal = null;
+        try (SortedLookup inPrevious = new SortedLookup(previous, recordSize, bufferBytes);
+             SortedLookup inCurrent = new SortedLookup(current, recordSize, bufferBytes);
+             RecordWriter writer = new RecordWriter(next, recordSize, bufferBytes)) {
+            for (Path run : runs) {
+                RecordReader reader = new RecordReader(run, recordSize, bufferBytes);
+                readers.add(reader);
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+
+            byte[] last = null;
+            while (!heap.isEmpty()) {
+                RecordReader reader = heap.poll();
+                byte[] record = reader.current().clone();
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+                if (last != null && compareRecords(record, last) == 0) {
+                    continue;
+                }
+                last = record;
+                if (inPrevious.contains(record) || inCurrent.contains(record)) {
+                    continue;
+                }
+                writer.write(record);
+                if (goal == null && layout.isGoal(record)) {
+                    goal = record;
+                }
+            }
+        } finally {
+            for (RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+        return goal;
+    }
+
+    // Walks from the goal back to the start, at each layer picking any neighbour that is
+    // stored in the layer above
+    private List<Move> backtrack(BoardLayout layout, List<Path> layers, byte[] goal) throws IOException {
+        List<Move> moves = new ArrayList<>();
+        byte[] state = goal;
+        for (int d = layers.size() - 1; d > 0; d--) {
+            try (FileChannel channel = FileChannel.open(layers.get(d - 1), StandardOpenOption.READ)) {
+                Object[] found = new Object[3];
+                ByteBuffer probe = ByteBuffer.allocate(state.length);
+                layout.forEachSuccessor(state, (neighbour, piece, delta) -> {
+                    if (found[0] == null && binarySearch(channel, neighbour, probe)) {
+                        found[0] = neighbour.clone();
+                        found[1] = piece;
+                        found[2] = delta;
+                    }
+                });
+                if (found[0] == null) {
+                    throw new IllegalStateException("Broken BFS layer " + (d - 1));
+                }
+                moves.add(layout.toMove((Integer) found[1], -(Integer) found[2]));
+                state = (byte[]) found[0];
+            }
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    private static boolean binarySearch(FileChannel channel, byte[] record, ByteBuffer probe) {
+        try {
+            long low = 0;
+            long high = channel.size() / record.length - 1;
+            byte[] candidate = new byte[record.length];
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                probe.clear();
+                while (probe.hasRemaining()) {
+                    if (channel.read(probe, mid * record.length + probe.position()) < 0) {
+                        throw new IOException("Unexpected end of layer file");
+                    }
+                }
+                probe.flip();
+                probe.get(candidate);
+                int cmp = compareRecords(candidate, record);
+                if (cmp == 0) {
+                    return true;
+                } else if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GameState replay(List<Move> moves) {
+        GameState state = new GameState(initialBoard, "none");
+        for (Move move : moves) {
+            state = new GameState(state.getBoard().applyMove(move), state.getMoves(), move, state.getG(), true);
+        }
+        return state;
+    }
+
+    private static Path layerFile(Path runDir, int depth) {
+        return runDir.resolve(String.format("layer-%06d.bin", depth));
+    }
+
+    private static int compareRecords(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int cmp = Byte.compareUnsigned(a[i], b[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static void deleteDirectory(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            System.err.println("Could not clean up " + dir + ": " + e.getMessage());
+        }
+    }
+
+    // Collects successors in a flat byte array and spills it as a sorted run when full. The
+    // array starts small and doubles up to capacity, so small searches never allocate the
+    // whole budget, and it is kept from layer to layer.
+    private static class RunBuilder {
+        private static final int INITIAL_RECORDS = 4096;
+
+        private final Path runDir;
+        private final int recordSize;
+        private final int capacity;
+        private byte[] buffer;
+        private final List<Path> files = new ArrayList<>();
+        private int count;
+
+        RunBuilder(Path runDir, int recordSize, int capacity) {
+            this.runDir = runDir;
+            this.recordSize = recordSize;
+            this.capacity = Math.max(1, capacity);
+            this.buffer = new byte[Math.min(this.capacity, INITIAL_RECORDS) * recordSize];
+        }
+
+        // Starts a new layer; the previous layer's runs belong to the caller now
+        void reset() {
+            files.clear();
+            count = 0;
+        }
+
+        void add(byte[] record) {
+            if (count * recordSize == buffer.length) {
+                if (count < capacity) {
+                    int grown = (int) Math.min(capacity, 2L * count);
+                    buffer = Arrays.copyOf(buffer, grown * recordSize);
+                } else {
+                    flush();
+                }
+            }
+            System.arraycopy(record, 0, buffer, count * recordSize, recordSize);
+            count++;
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            RecordSort.sort(buffer, count, recordSize);
+            Path file = runDir.resolve("run-" + files.size() + ".bin");
+            try (RecordWriter writer = new RecordWriter(file, recordSize, IO_BUFFER_BYTES)) {
+                byte[] record = new byte[recordSize];
+                byte[] last = null;
+                for (int i = 0; i < count; i++) {
+                    System.arraycopy(buffer, i * recordSize, record, 0, recordSize);
+                    if (last != null && compareRecords(record, last) == 0) {
+                        continue;
+                    }
+                    writer.write(record);
+                    last = record.clone();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            files.add(file);
+            count = 0;
+        }
+
+        void discard() throws IOException {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            files.clear();
+            count = 0;
+        }
+    }
+
+    // In-place quicksort of fixed-size records stored back to back in one array
+    private static class RecordSort {
+        static void sort(byte[] data, int count, int recordSize) {
+            quickSort(data, 0, count - 1, recordSize, new byte[recordSize], new byte[recordSize]);
+        }
+
+        private static void quickSort(byte[] data, int low, int high, int size, byte[] pivot, byte[] temp) {
+            while (high - low > 16) {
+                System.arraycopy(data, ((low + high) >>> 1) * size, pivot, 0, size);
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (compareAt(data, i, pivot, size) < 0) {
+                        i++;
+                    }
+                    while (compareAt(data, j, pivot, size) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(data, i, j, size, temp);
+                        i++;
+                        j--;
+                    }
+                }
+                if (j - low < high - i) {
+                    quickSort(data, low, j, size, pivot, temp);
+                    low = i;
+                } else {
+                    quickSort(data, i, high, size, pivot, temp);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                System.arraycopy(data, i * size, temp, 0, size);
+                int j = i - 1;
+                while (j >= low && compareAt(data, j, temp, size) > 0) {
+                    System.arraycopy(data, j * size, data, (j + 1) * size, size);
+                    j--;
+                }
+                System.arraycopy(temp, 0, data, (j + 1) * size, size);
+            }
+        }
+
+        private static int compareAt(byte[] data, int index, byte[] other, int size) {
+            int offset = index * size;
+            for (int k = 0; k < size; k++) {
+                int cmp = Byte.compareUnsigned(data[offset + k], other[k]);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+
+        private static void swap(byte[] data, int a, int b, int size, byte[] temp) {
+            System.arraycopy(data, a * size, temp, 0, size);
+            System.arraycopy(data, b * size, data, a * size, size);
+            System.arraycopy(temp, 0, data, b * size, size);
+        }
+    }
+
+    // Sequential reader of fixed-size records through a direct NIO buffer
+    private static class RecordReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final byte[] current;
+
+        RecordReader(Path file, int recordSize, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(Math.max(recordSize, bufferBytes / recordSize * recordSize));
+            this.buffer.flip();
+            this.current = new byte[recordSize];
+        }
+
+        boolean next(byte[] into) throws IOException {
+            if (buffer.remaining() < into.length) {
+                buffer.compact();
+                while (buffer.position() < into.length && channel.read(buffer) > 0) {
+                    // keep filling until one whole record is available
+                }
+                buffer.flip();
+                if (buffer.remaining() < into.length) {
+                    return false;
+                }
+            }
+            buffer.get(into);
+            return true;
+        }
+
+        boolean advance() throws IOException {
+            return next(current);
+        }
+
+        byte[] current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class RecordWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RecordWriter(Path file, int recordSize, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocateDirect(Math.max(recordSize, bufferBytes / recordSize * recordSize));
+        }
+
+        void write(byte[] record) throws IOException {
+            if (buffer.remaining() < record.length) {
+                drain();
+            }
+            buffer.put(record);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            drain();
+            channel.close();
+        }
+    }
+
+    // Membership test for ascending queries against a sorted layer file, in one forward pass
+    private static class SortedLookup implements AutoCloseable {
+        private final RecordReader reader;
+        private boolean hasCurrent;
+
+        SortedLookup(Path file, int recordSize, int bufferBytes) throws IOException {
+            this.reader = file != null ? new RecordReader(file, recordSize, bufferBytes) : null;
+            this.hasCurrent = reader != null && reader.advance();
+        }
+
+        boolean contains(byte[] record) throws IOException {
+            while (hasCurrent && compareRecords(reader.current(), record) < 0) {
+                hasCurrent = reader.advance();
+            }
+            return hasCurrent && compareRecords(reader.current(), record) == 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    @Override
+    public void printSolution(GameState solution) {
+        if (solution == null) {
+            System.out.println("Tidak ada solusi yang ditemukan!");
+            return;
+        }
+
+        List<Move> moves = solution.getMoves();
+
+        System.out.println("Papan Awal");
+        initialBoard.printBoard(null);
+
+        Board currentBoard = initialBoard;
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            currentBoard = currentBoard.applyMove(move);
+            System.out.println("Gerakan " + (i + 1) + ": " + move);
+            currentBoard.printBoard(move);
+        }
+
+        System.out.println("Solusi ditemukan dalam " + moves.size() + " langkah");
+        System.out.println("Jumlah node yang diperiksa: " + nodesVisited);
+        System.out.println("Waktu eksekusi: " + executionTime + " ms");
+    }
+
+    // Number of BFS layers completed in the last search
+    public int getDepth() {
+        return depth;
+    }
+
+    @Override
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public double getExecutionTime() {
+        return executionTime;
+    }
+}
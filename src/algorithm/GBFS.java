@@ -6,7 +6,7 @@ import core.Move;
 
 import java.util.*;
 
-public class GBFS {
+public class GBFS implements Solver {
     private static class Node {
         GameState state;
 
@@ -19,6 +19,7 @@ public class GBFS {
     private double executionTime;
     private String heuristicName;
     private Board initialBoard;
+    private StateSet.Factory closedSetFactory = HeapStateSet::new;
 
     public GBFS(String heuristicName) {
         this.nodesVisited = 0;
@@ -26,15 +27,40 @@ public class GBFS {
         this.heuristicName = heuristicName;
     }
 
-    public GameState solve(Board initialBoard) {
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
         this.initialBoard = initialBoard;
         nodesVisited = 0;
         long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(initialBoard, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
+        StateKey keys = new StateKey(initialBoard);
+        StateSet closedSet = closedSetFactory.create(keys.getStateSize());
+
+        try {
+            return search(initialBoard, keys, closedSet, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        } finally {
+            closedSet.close();
+        }
+    }
 
+    // Where visited states are stored; defaults to an on-heap HashSet
+    public void setClosedSetFactory(StateSet.Factory closedSetFactory) {
+        this.closedSetFactory = closedSetFactory;
+    }
+
+    private SearchResult search(Board initialBoard, StateKey keys, StateSet closedSet, SearchBudget budget,
+                                long startTime) {
         PriorityQueue<Node> openList = new PriorityQueue<>(
             Comparator.comparingDouble(n -> n.state.getH())
         );
-        Set<String> closedList = new HashSet<>();
 
         GameState initialState = new GameState(initialBoard, heuristicName);
         Node initialNode = new Node(initialState, null);
@@ -45,22 +71,24 @@ public class GBFS {
             GameState currentState = currentNode.state;
             nodesVisited++;
 
-            String currentKey = getBoardKey(currentState.getBoard());
-
             if (currentState.isGoal()) {
                 executionTime = (System.nanoTime() - startTime) / 1_000_000.0; // Convert to milliseconds
-                return currentState;
+                return SearchResult.solved(currentState, nodesVisited, executionTime);
             }
 
-            if (closedList.contains(currentKey)) {
-                continue;
+            budget.track(currentState, currentState.getH(), currentState.getH());
+            budget.record(currentState, nodesVisited, openList.size());
+            if (budget.isExhausted(nodesVisited)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return budget.exceeded(nodesVisited, executionTime);
             }
 
-            closedList.add(currentKey);
+            if (!closedSet.add(keys.encode(currentState.getBoard()))) {
+                continue;
+            }
 
             for (GameState successor : currentState.getSuccessors()) {
-                String successorKey = getBoardKey(successor.getBoard());
-                if (!closedList.contains(successorKey)) {
+                if (!closedSet.contains(keys.encode(successor.getBoard()))) {
                     Node successorNode = new Node(successor, currentNode);
                     openList.add(successorNode);
                 }
@@ -68,20 +96,10 @@ public class GBFS {
         }
 
         executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
-        return null;
-    }
-
-    private String getBoardKey(Board board) {
-        StringBuilder key = new StringBuilder();
-        char[][] grid = board.getGrid();
-        for (int i = 0; i < board.getRows(); i++) {
-            for (int j = 0; j < board.getCols(); j++) {
-                key.append(grid[i][j]);
-            }
-        }
-        return key.toString();
+        return SearchResult.unsolvable(nodesVisited, executionTime);
     }
 
+    @Override
     public void printSolution(GameState solution) {
         if (solution == null) {
             System.out.println("Tidak ada solusi yang ditemukan!");
@@ -108,10 +126,12 @@ public class GBFS {
         System.out.println("Waktu eksekusi: " + executionTime + " ms");
     }
 
+    @Override
     public int getNodesVisited() {
         return nodesVisited;
     }
 
+    @Override
     public double getExecutionTime() {
         return executionTime;
     }
@@ -0,0 +1,33 @@
+package algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+// Default closed set backed by an ordinary HashSet
+public class HeapStateSet implements StateSet {
+    private final Set<ByteBuffer> states = new HashSet<>();
+
+    public HeapStateSet(int stateSize) {
+    }
+
+    @Override
+    public boolean add(byte[] state) {
+        return states.add(ByteBuffer.wrap(state.clone()));
+    }
+
+    @Override
+    public boolean contains(byte[] state) {
+        return states.contains(ByteBuffer.wrap(state));
+    }
+
+    @Override
+    public long size() {
+        return states.size();
+    }
+
+    @Override
+    public void close() {
+        states.clear();
+    }
+}
@@ -1,6 +1,8 @@
 package algorithm;
 
 import core.Board;
+import core.BoardLayout;
+import core.CostModel;
 import core.Piece;
 
 public class Heuristics {
@@ -105,7 +107,43 @@ public class Heuristics {
         return manhattanDistance(board) + 2 * blockingVehicles(board);
     }
     
+    // Lower bound on the remaining cost under the given model. Every vehicle blocking the exit
+    // has to move at least once, and at least one cell. Under MOVES the primary piece adds one
+    // more move however far it is from the exit; under CELLS it adds its distance in cells.
+    public static double admissible(Board board, CostModel costModel) {
+        if (board.isSolved()) {
+            return 0;
+        }
+        double blocking = blockingVehicles(board);
+        if (costModel == CostModel.CELLS) {
+            return Math.max(1, manhattanDistance(board) + blocking);
+        }
+        return 1 + blocking;
+    }
+
+    // Same heuristics evaluated directly on a packed state
+    // ("pattern" is the admissible bound here; CompactAStar adds its PatternDatabase on top)
+    public static int getHeuristic(BoardLayout layout, byte[] state, String heuristicName) {
+        switch (heuristicName.toLowerCase()) {
+            case "none":
+                return 0;
+            case "blocking":
+                return layout.blockingCells(state);
+            case "admissible":
+            case "pattern":
+                return layout.isGoal(state) ? 0 : 1 + layout.blockingCells(state);
+            case "combined":
+                return layout.distanceToExit(state) + 2 * layout.blockingCells(state);
+            default:
+                return layout.distanceToExit(state);
+        }
+    }
+
     public static double getHeuristic(Board board, String heuristicName) {
+        return getHeuristic(board, heuristicName, CostModel.MOVES);
+    }
+
+    public static double getHeuristic(Board board, String heuristicName, CostModel costModel) {
         switch (heuristicName.toLowerCase()) {
             case "manhattan":
                 return manhattanDistance(board);
@@ -113,6 +151,9 @@ public class Heuristics {
                 return blockingVehicles(board);
             case "combined":
                 return combined(board);
+            case "admissible":
+            case "pattern":
+                return admissible(board, costModel);
             default:
                 return manhattanDistance(board);
         }
@@ -0,0 +1,74 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Binary min-heap of NodePool indices ordered by f, then h, then insertion order
+class NodeHeap {
+    private final NodePool pool;
+    private int[] heap = new int[1024];
+    private int size;
+
+    NodeHeap(NodePool pool) {
+        this.pool = pool;
+    }
+
+    void push(int node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(node, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = node;
+    }
+
+    int pop() {
+        int top = heap[0];
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], last)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean less(int a, int b) {
+        int fa = pool.getF(a);
+        int fb = pool.getF(b);
+        if (fa != fb) {
+            return fa < fb;
+        }
+        int ha = pool.getH(a);
+        int hb = pool.getH(b);
+        if (ha != hb) {
+            return ha < hb;
+        }
+        return a < b;
+    }
+}
@@ -0,0 +1,166 @@
+package algorithm;
+
+import java.util.Arrays;
+
+// Search nodes stored as parallel primitive arrays instead of one GameState per node.
+// A node is just an int index: its packed state lives in one shared byte array and
+// parent, g, h and the move that produced it sit in int arrays. An open-addressing index
+// over the packed states finds the node currently holding a state.
+class NodePool {
+    static final int NO_PARENT = -1;
+
+    private final int stateSize;
+    private byte[] states;
+    private int[] parent;
+    private int[] g;
+    private int[] h;
+    private int[] move;
+    private boolean[] closed;
+    private int size;
+
+    private int[] index;
+    private int indexed;
+
+    NodePool(int stateSize, int initialCapacity) {
+        this.stateSize = stateSize;
+        int capacity = Math.max(16, initialCapacity);
+        states = new byte[capacity * stateSize];
+        parent = new int[capacity];
+        g = new int[capacity];
+        h = new int[capacity];
+        move = new int[capacity];
+        closed = new boolean[capacity];
+        index = new int[Integer.highestOneBit(capacity) << 2];
+        Arrays.fill(index, -1);
+    }
+
+    // Adds a node and makes it the indexed node for its state
+    int add(byte[] state, int parentNode, int gValue, int hValue, int moveCode) {
+        if (size == parent.length) {
+            grow();
+        }
+        int node = size++;
+        System.arraycopy(state, 0, states, node * stateSize, stateSize);
+        parent[node] = parentNode;
+        g[node] = gValue;
+        h[node] = hValue;
+        move[node] = moveCode;
+
+        if ((indexed + 1) * 2 > index.length) {
+            rehash();
+        }
+        int slot = findSlot(state);
+        if (index[slot] < 0) {
+            indexed++;
+        }
+        index[slot] = node;
+        return node;
+    }
+
+    // Node currently indexed for the state, or -1
+    int find(byte[] state) {
+        return index[findSlot(state)];
+    }
+
+    private int findSlot(byte[] state) {
+        int mask = index.length - 1;
+        int slot = hash(state, 0, state.length) & mask;
+        while (index[slot] >= 0 && !matches(index[slot], state)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean matches(int node, byte[] state) {
+        int offset = node * stateSize;
+        for (int i = 0; i < stateSize; i++) {
+            if (states[offset + i] != state[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] data, int offset, int length) {
+        int hash = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ data[i]) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        int capacity = parent.length + (parent.length >> 1);
+        states = Arrays.copyOf(states, capacity * stateSize);
+        parent = Arrays.copyOf(parent, capacity);
+        g = Arrays.copyOf(g, capacity);
+        h = Arrays.copyOf(h, capacity);
+        move = Arrays.copyOf(move, capacity);
+        closed = Arrays.copyOf(closed, capacity);
+    }
+
+    private void rehash() {
+        int[] old = index;
+        index = new int[old.length * 2];
+        Arrays.fill(index, -1);
+        int mask = index.length - 1;
+        for (int node : old) {
+            if (node >= 0) {
+                int slot = hash(states, node * stateSize, stateSize) & mask;
+                while (index[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = node;
+            }
+        }
+    }
+
+    void copyState(int node, byte[] into) {
+        System.arraycopy(states, node * stateSize, into, 0, stateSize);
+    }
+
+    int getParent(int node) {
+        return parent[node];
+    }
+
+    int getG(int node) {
+        return g[node];
+    }
+
+    int getH(int node) {
+        return h[node];
+    }
+
+    int getF(int node) {
+        return g[node] + h[node];
+    }
+
+    int getMove(int node) {
+        return move[node];
+    }
+
+    boolean isClosed(int node) {
+        return closed[node];
+    }
+
+    void close(int node) {
+        closed[node] = true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Moves are stored as piece index and signed distance in one int
+    static int encodeMove(int piece, int delta) {
+        return (piece << 8) | (delta & 0xff);
+    }
+
+    static int movePiece(int code) {
+        return code >>> 8;
+    }
+
+    static int moveDelta(int code) {
+        return (byte) code;
+    }
+}
@@ -0,0 +1,216 @@
+package algorithm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Open-addressing hash set of packed states stored outside the Java heap, either in direct
+// ByteBuffers or in a memory-mapped file. Each slot is one flag byte followed by the state bytes,
+// so the GC only ever sees a handful of buffer objects however many states are stored. A single
+// buffer is limited to 2 GB, so the table is split into segments of up to 1 GB (a power-of-two
+// number of whole slots each) and can grow as far as native memory or the disk allows.
+// When the load factor passes maxLoad the table is rehashed into one growthFactor times larger.
+public class OffHeapStateSet implements StateSet {
+    public static final long DEFAULT_INITIAL_CAPACITY = 1 << 16;
+    public static final double DEFAULT_MAX_LOAD = 0.7;
+    public static final int DEFAULT_GROWTH_FACTOR = 2;
+
+    private final int stateSize;
+    private final int slotSize;
+    private final double maxLoad;
+    private final int growthFactor;
+    private final Path file;
+
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final int segmentShift;
+    private final long segmentMask;
+    private ByteBuffer[] table;
+    private FileChannel channel;
+    private Path currentFile;
+    private int generation;
+    private long capacity;
+    private long size;
+
+    public OffHeapStateSet(int stateSize) {
+        this(stateSize, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_LOAD, DEFAULT_GROWTH_FACTOR, null);
+    }
+
+    // file == null keeps the table in a direct buffer; otherwise it is mapped from that path
+    public OffHeapStateSet(int stateSize, long initialCapacity, double maxLoad, int growthFactor, Path file) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("Max load must be between 0 and 1");
+        }
+        if (growthFactor < 2) {
+            throw new IllegalArgumentException("Growth factor must be at least 2");
+        }
+        this.stateSize = stateSize;
+        this.slotSize = stateSize + 1;
+        this.maxLoad = maxLoad;
+        this.growthFactor = growthFactor;
+        this.file = file;
+        long slotsPerSegment = Long.highestOneBit(MAX_SEGMENT_BYTES / slotSize);
+        this.segmentShift = Long.numberOfTrailingZeros(slotsPerSegment);
+        this.segmentMask = slotsPerSegment - 1;
+        allocate(Long.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    public static StateSet.Factory factory(long initialCapacity, double maxLoad, int growthFactor, Path file) {
+        return stateSize -> new OffHeapStateSet(stateSize, initialCapacity, maxLoad, growthFactor, file);
+    }
+
+    @Override
+    public boolean add(byte[] state) {
+        if (size + 1 > capacity * maxLoad) {
+            grow();
+        }
+        long slot = findSlot(table, capacity, state);
+        if (isUsed(table, slot)) {
+            return false;
+        }
+        writeSlot(table, slot, state);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(byte[] state) {
+        return isUsed(table, findSlot(table, capacity, state));
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    // Index of the slot holding the state, or of the empty slot where it would go
+    private long findSlot(ByteBuffer[] segments, long slots, byte[] state) {
+        long mask = slots - 1;
+        long index = hash(state) & mask;
+        while (true) {
+            if (!isUsed(segments, index) || matches(segments, index, state)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private boolean isUsed(ByteBuffer[] segments, long slot) {
+        return segments[(int) (slot >>> segmentShift)].get(offset(slot)) != 0;
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & segmentMask) * slotSize;
+    }
+
+    private boolean matches(ByteBuffer[] segments, long slot, byte[] state) {
+        ByteBuffer segment = segments[(int) (slot >>> segmentShift)];
+        int offset = offset(slot);
+        for (int i = 0; i < stateSize; i++) {
+            if (segment.get(offset + 1 + i) != state[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeSlot(ByteBuffer[] segments, long slot, byte[] state) {
+        ByteBuffer segment = segments[(int) (slot >>> segmentShift)];
+        int offset = offset(slot);
+        segment.put(offset, (byte) 1);
+        for (int i = 0; i < stateSize; i++) {
+            segment.put(offset + 1 + i, state[i]);
+        }
+    }
+
+    private static long hash(byte[] state) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : state) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 29);
+    }
+
+    private void grow() {
+        ByteBuffer[] oldTable = table;
+        long oldCapacity = capacity;
+        FileChannel oldChannel = channel;
+        Path oldFile = currentFile;
+
+        allocate(oldCapacity * growthFactor);
+        byte[] state = new byte[stateSize];
+        for (long i = 0; i < oldCapacity; i++) {
+            if (isUsed(oldTable, i)) {
+                ByteBuffer segment = oldTable[(int) (i >>> segmentShift)];
+                int offset = offset(i);
+                for (int k = 0; k < stateSize; k++) {
+                    state[k] = segment.get(offset + 1 + k);
+                }
+                writeSlot(table, findSlot(table, capacity, state), state);
+            }
+        }
+        release(oldChannel, oldFile);
+    }
+
+    private void allocate(long slots) {
+        long slotsPerSegment = segmentMask + 1;
+        long segmentSlots = Math.min(slots, slotsPerSegment);
+        long segmentCount = (slots + segmentSlots - 1) / segmentSlots;
+        if (segmentCount > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Off-heap state set cannot grow past " + capacity + " slots");
+        }
+        int segmentBytes = (int) (segmentSlots * slotSize);
+        ByteBuffer[] segments = new ByteBuffer[(int) segmentCount];
+        if (file == null) {
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = ByteBuffer.allocateDirect(segmentBytes);
+            }
+            table = segments;
+            capacity = slots;
+            return;
+        }
+        try {
+            currentFile = generation == 0 ? file : file.resolveSibling(file.getFileName() + "." + generation);
+            generation++;
+            channel = FileChannel.open(currentFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentBytes, segmentBytes);
+            }
+            table = segments;
+            capacity = slots;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void release(FileChannel channel, Path path) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not remove " + path + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        release(channel, currentFile);
+        channel = null;
+        table = new ByteBuffer[] {ByteBuffer.allocate(slotSize)};
+        capacity = 1;
+        size = 0;
+    }
+}
@@ -0,0 +1,243 @@
+package algorithm;
+
+import core.Board;
+import core.BoardLayout;
+import core.Piece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Exact solution lengths for a small pattern of the board's cars: the primary piece, the cars
+// whose lanes cross its way to the exit, and the cars standing in those lanes. The rest of the
+// board is left out, which can only make the puzzle easier, so a pattern's distance is a lower
+// bound on the real one, and a pattern that cannot reach the exit at all means the state is a
+// dead end. All pattern states are found once per search with a breadth-first search back from
+// the pattern's goal states and kept in an open-addressing table of packed positions, so a
+// lookup during the search is a handful of array reads. Since the pattern is fixed for the
+// whole search, the bound is consistent and A* stays optimal with it.
+public class PatternDatabase {
+    public static final int DEAD = -1;
+
+    private static final int MAX_PATTERN_CARS = 8;
+    private static final long EMPTY = -1L;
+
+    private final int[] fullIndex;
+    private long[] keys;
+    private byte[] distances;
+    private int size;
+
+    // Breadth-first queue, only while building
+    private long[] queue;
+    private int queueTail;
+
+    private PatternDatabase(int[] fullIndex) {
+        this.fullIndex = fullIndex;
+        this.keys = new long[1024];
+        this.distances = new byte[1024];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    // Picks the largest pattern whose state space fits in maxStates and solves it
+    public static PatternDatabase build(Board board, BoardLayout layout, int maxStates) {
+        List<Piece> pattern = choosePattern(board, maxStates);
+        Board abstractBoard = abstractBoard(board, pattern);
+        BoardLayout abstractLayout = new BoardLayout(abstractBoard);
+
+        int[] fullIndex = new int[pattern.size()];
+        for (int i = 0; i < pattern.size(); i++) {
+            fullIndex[abstractLayout.indexOf(pattern.get(i).getId())] = layout.indexOf(pattern.get(i).getId());
+        }
+        PatternDatabase database = new PatternDatabase(fullIndex);
+        database.solve(abstractLayout);
+        return database;
+    }
+
+    // Lower bound on the moves left from a full packed state, or DEAD
+    public int lowerBound(byte[] state) {
+        long key = 0;
+        for (int i = 0; i < fullIndex.length; i++) {
+            key = (key << 8) | state[fullIndex[i]];
+        }
+        int slot = find(key);
+        return keys[slot] == EMPTY ? DEAD : distances[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPatternSize() {
+        return fullIndex.length;
+    }
+
+    private void solve(BoardLayout abstractLayout) {
+        queue = new long[1024];
+        queueTail = 0;
+        abstractLayout.forEachGoalState(goal -> enqueue(pack(goal), 0));
+
+        byte[] state = new byte[fullIndex.length];
+        for (int head = 0; head < queueTail; head++) {
+            long key = queue[head];
+            unpack(key, state);
+            int next = distances[find(key)] + 1;
+            abstractLayout.forEachSuccessor(state, (successor, piece, delta) -> enqueue(pack(successor), next));
+        }
+        queue = null;
+    }
+
+    private void enqueue(long key, int distance) {
+        if (!insert(key, distance)) {
+            return;
+        }
+        if (queueTail == queue.length) {
+            queue = Arrays.copyOf(queue, queueTail * 2);
+        }
+        queue[queueTail++] = key;
+    }
+
+    private static long pack(byte[] state) {
+        long key = 0;
+        for (byte position : state) {
+            key = (key << 8) | position;
+        }
+        return key;
+    }
+
+    private static void unpack(long key, byte[] state) {
+        for (int i = state.length - 1; i >= 0; i--) {
+            state[i] = (byte) (key & 0xFF);
+            key >>>= 8;
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Adds the key with its distance unless it is already known; BFS order makes the first
+    // distance the smallest
+    private boolean insert(long key, int distance) {
+        int slot = find(key);
+        if (keys[slot] != EMPTY) {
+            return false;
+        }
+        keys[slot] = key;
+        distances[slot] = (byte) Math.min(distance, Byte.MAX_VALUE);
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldDistances = distances;
+        keys = new long[oldKeys.length * 2];
+        distances = new byte[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                distances[slot] = oldDistances[i];
+            }
+        }
+    }
+
+    // The primary piece, then the cars crossing its way to the exit, then the cars currently in
+    // those cars' lanes, nearest to the primary lane first, for as long as the product of
+    // their lane positions stays within maxStates
+    private static List<Piece> choosePattern(Board board, int maxStates) {
+        Piece primary = board.getPrimaryPiece();
+        boolean horizontal = primary.isHorizontal();
+        int laneLength = horizontal ? board.getCols() : board.getRows();
+        int primaryLane = horizontal ? primary.getRow() : primary.getCol();
+        int start = horizontal ? primary.getCol() : primary.getRow();
+        int end = start + primary.getSize() - 1;
+        int exit = horizontal ? board.getExitCol() : board.getExitRow();
+        int from = exit > end ? end + 1 : Math.max(0, exit);
+        int to = exit > end ? Math.min(exit, laneLength - 1) : start - 1;
+
+        List<Piece> crossing = new ArrayList<>();
+        List<Piece> others = new ArrayList<>();
+        for (Piece piece : board.getPieces()) {
+            if (piece.isPrimary()) {
+                continue;
+            }
+            int lane = piece.isHorizontal() ? piece.getRow() : piece.getCol();
+            if (piece.isHorizontal() != horizontal && lane >= from && lane <= to) {
+                crossing.add(piece);
+            } else {
+                others.add(piece);
+            }
+        }
+
+        List<Piece> second = new ArrayList<>();
+        for (Piece piece : others) {
+            for (Piece cross : crossing) {
+                if (occupiesLaneOf(piece, cross)) {
+                    second.add(piece);
+                    break;
+                }
+            }
+        }
+        second.sort((a, b) -> Integer.compare(distanceToLane(a, horizontal, primaryLane),
+                distanceToLane(b, horizontal, primaryLane)));
+
+        List<Piece> pattern = new ArrayList<>();
+        pattern.add(primary);
+        long states = positions(primary, board);
+        List<Piece> candidates = new ArrayList<>(crossing);
+        candidates.addAll(second);
+        for (Piece piece : candidates) {
+            long grown = states * positions(piece, board);
+            if (pattern.size() == MAX_PATTERN_CARS || grown > maxStates) {
+                break;
+            }
+            pattern.add(piece);
+            states = grown;
+        }
+        return pattern;
+    }
+
+    private static boolean occupiesLaneOf(Piece piece, Piece cross) {
+        for (int[] cell : piece.getOccupiedCells()) {
+            if (cross.isHorizontal() ? cell[0] == cross.getRow() : cell[1] == cross.getCol()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int distanceToLane(Piece piece, boolean horizontal, int primaryLane) {
+        int nearest = Integer.MAX_VALUE;
+        for (int[] cell : piece.getOccupiedCells()) {
+            nearest = Math.min(nearest, Math.abs((horizontal ? cell[0] : cell[1]) - primaryLane));
+        }
+        return nearest;
+    }
+
+    private static long positions(Piece piece, Board board) {
+        return (piece.isHorizontal() ? board.getCols() : board.getRows()) - piece.getSize() + 1;
+    }
+
+    private static Board abstractBoard(Board board, List<Piece> pattern) {
+        char[][] grid = new char[board.getRows()][board.getCols()];
+        for (char[] row : grid) {
+            Arrays.fill(row, '.');
+        }
+        for (Piece piece : pattern) {
+            for (int[] cell : piece.getOccupiedCells()) {
+                grid[cell[0]][cell[1]] = piece.getId();
+            }
+        }
+        return new Board(board.getRows(), board.getCols(), grid, pattern, board.getPrimaryPiece(),
+                board.getExitRow(), board.getExitCol());
+    }
+}
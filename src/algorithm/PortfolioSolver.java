@@ -0,0 +1,330 @@
+package algorithm;
+
+import core.Board;
+import core.GameState;
+import core.Log;
+import core.SolutionVerifier;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Races several algorithm/heuristic combinations on separate threads. In FIRST mode the
+// first solution wins and the other searches are cancelled; in BEST mode the searches run
+// until they finish or hit the limits and the shortest solution wins. BEST mode stops early
+// once a configuration that guarantees optimal solutions has answered, since nothing can beat
+// it, and without a caller's time limit each racer gets DEFAULT_BEST_TIME_LIMIT_MILLIS so one
+// slow configuration cannot hold back the answer indefinitely. The racers run on a
+// pool of their own, or on a shared executor given by the caller; with a shared executor,
+// solve() only returns once every racer has stopped, so the caller's count of busy threads
+// stays exact.
+public class PortfolioSolver implements Solver {
+
+    public enum Mode {
+        FIRST,
+        BEST
+    }
+
+    public static class Configuration {
+        private final String algorithm;
+        private final String heuristic;
+
+        public Configuration(String algorithm, String heuristic) {
+            this.algorithm = algorithm;
+            this.heuristic = Solvers.usesHeuristic(algorithm) ? heuristic : null;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public String getHeuristic() {
+            return heuristic;
+        }
+
+        // Whether a solution from this configuration always has the fewest moves
+        public boolean isOptimal() {
+            switch (algorithm) {
+                case "ucs":
+                case "dijkstra":
+                case "external":
+                    return true;
+                case "astar":
+                case "compact":
+                    return "admissible".equals(heuristic) || "pattern".equals(heuristic);
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return heuristic != null ? algorithm + "/" + heuristic : algorithm;
+        }
+    }
+
+    private static class Outcome {
+        int index;
+        Configuration configuration;
+        Solver solver;
+        SearchResult result;
+    }
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    public static final long DEFAULT_BEST_TIME_LIMIT_MILLIS = 30_000;
+
+    private final List<Configuration> configurations;
+    private final Mode mode;
+    private final PortfolioStats stats;
+    private final ExecutorService sharedExecutor;
+
+    private int nodesVisited;
+    private double executionTime;
+    private Configuration winner;
+    private Solver winningSolver;
+
+    public PortfolioSolver(Mode mode) {
+        this(defaultConfigurations(), mode, null);
+    }
+
+    public PortfolioSolver(List<Configuration> configurations, Mode mode, PortfolioStats stats) {
+        this(configurations, mode, stats, null);
+    }
+
+    public PortfolioSolver(List<Configuration> configurations, Mode mode, PortfolioStats stats,
+                           ExecutorService sharedExecutor) {
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException("Portfolio needs at least one configuration");
+        }
+        this.configurations = new ArrayList<>(configurations);
+        this.mode = mode;
+        this.stats = stats;
+        this.sharedExecutor = sharedExecutor;
+    }
+
+    public int getConfigurationCount() {
+        return configurations.size();
+    }
+
+    public static List<Configuration> defaultConfigurations() {
+        List<Configuration> configurations = new ArrayList<>();
+        configurations.add(new Configuration("astar", "manhattan"));
+        configurations.add(new Configuration("astar", "blocking"));
+        configurations.add(new Configuration("gbfs", "manhattan"));
+        configurations.add(new Configuration("gbfs", "combined"));
+        configurations.add(new Configuration("ucs", null));
+        configurations.add(new Configuration("dijkstra", null));
+        return configurations;
+    }
+
+    @Override
+    public SearchResult solve(Board initialBoard, SearchLimits limits) {
+        SearchLimits baseLimits = limits != null ? limits : SearchLimits.none();
+        if (mode == Mode.BEST && baseLimits.getTimeLimitMillis() == 0) {
+            baseLimits = baseLimits.withTimeLimit(DEFAULT_BEST_TIME_LIMIT_MILLIS);
+        }
+        SearchMonitor parentMonitor = baseLimits.getMonitor();
+        long startTime = System.nanoTime();
+        if (parentMonitor != null) {
+            parentMonitor.start(startTime);
+        }
+
+        nodesVisited = 0;
+        winner = null;
+        winningSolver = null;
+
+        ExecutorService executor = sharedExecutor != null ? sharedExecutor
+                : Executors.newFixedThreadPool(configurations.size(), runnable -> {
+                    Thread thread = new Thread(runnable, "portfolio-solver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        CompletionService<Outcome> completionService = new ExecutorCompletionService<>(executor);
+        List<SearchMonitor> monitors = new ArrayList<>();
+        CountDownLatch stopped = new CountDownLatch(configurations.size());
+
+        long[] finishedNodes = new long[configurations.size()];
+        Arrays.fill(finishedNodes, -1);
+
+        for (int i = 0; i < configurations.size(); i++) {
+            int index = i;
+            Configuration configuration = configurations.get(i);
+            SearchMonitor monitor = new SearchMonitor();
+            monitors.add(monitor);
+            // The trace takes a single writer, so racing solvers are not traced
+            SearchLimits childLimits = baseLimits.withMonitor(monitor).withTrace(null);
+            completionService.submit(() -> {
+                try {
+                    Outcome outcome = new Outcome();
+                    outcome.index = index;
+                    outcome.configuration = configuration;
+                    outcome.solver = Solvers.create(configuration.getAlgorithm(), configuration.getHeuristic());
+                    // A racer still queued on a shared executor when the race ends does not start
+                    outcome.result = monitor.isCancelled() ? SearchResult.cancelled(null, 0, 0)
+                            : outcome.solver.solve(initialBoard, childLimits);
+                    return outcome;
+                } finally {
+                    stopped.countDown();
+                }
+            });
+        }
+
+        Outcome best = null;
+        Outcome lastFailure = null;
+        boolean provenUnsolvable = false;
+        boolean cancelled = false;
+        int remaining = configurations.size();
+        SolutionVerifier verifier = new SolutionVerifier();
+
+        try {
+            while (remaining > 0) {
+                Future<Outcome> future = completionService.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (future == null) {
+                    if (parentMonitor != null) {
+                        if (parentMonitor.isCancelled()) {
+                            cancelled = true;
+                            cancelAll(monitors);
+                        }
+                        parentMonitor.update(totalNodes(monitors, finishedNodes), 0);
+                    }
+                    continue;
+                }
+                remaining--;
+
+                Outcome outcome;
+                try {
+                    outcome = future.get();
+                } catch (ExecutionException e) {
+                    Log.error("Portfolio solver failed: " + e.getCause());
+                    continue;
+                }
+
+                SearchResult result = outcome.result;
+                finishedNodes[outcome.index] = result.getNodesVisited();
+                if (result.isSolved()) {
+                    SolutionVerifier.Result check = verifier.verify(initialBoard, result.getSolution().getMoves());
+                    if (!check.isValid()) {
+                        Log.error("Portfolio solver " + outcome.configuration + " returned an invalid solution: " + check);
+                        lastFailure = outcome;
+                        continue;
+                    }
+                    if (best == null || isBetter(result, best.result)) {
+                        best = outcome;
+                        if (parentMonitor != null) {
+                            parentMonitor.reportSolution(result.getSolution().getMoves().size());
+                        }
+                    }
+                    if (mode == Mode.FIRST || outcome.configuration.isOptimal()) {
+                        cancelAll(monitors);
+                        break;
+                    }
+                } else if (result.getStatus() == SearchStatus.UNSOLVABLE) {
+                    // Every solver explores the full reachable space, so one exhausted search proves it
+                    provenUnsolvable = true;
+                    lastFailure = outcome;
+                    cancelAll(monitors);
+                    break;
+                } else {
+                    lastFailure = outcome;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            cancelAll(monitors);
+        } finally {
+            if (sharedExecutor == null) {
+                executor.shutdown();
+            } else {
+                cancelAll(monitors);
+                awaitStopped(stopped);
+            }
+        }
+
+        executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+        nodesVisited = (int) Math.min(Integer.MAX_VALUE, totalNodes(monitors, finishedNodes));
+        if (parentMonitor != null) {
+            parentMonitor.update(nodesVisited, 0);
+        }
+
+        if (best != null) {
+            winner = best.configuration;
+            winningSolver = best.solver;
+            if (stats != null) {
+                stats.recordWin(PortfolioStats.classify(initialBoard), winner.toString(),
+                        best.result.getExecutionTime());
+            }
+            return SearchResult.solved(best.result.getSolution(), nodesVisited, executionTime);
+        }
+        if (provenUnsolvable) {
+            return SearchResult.unsolvable(nodesVisited, executionTime);
+        }
+        GameState bestState = lastFailure != null ? lastFailure.result.getBestState() : null;
+        if (cancelled) {
+            return SearchResult.cancelled(bestState, nodesVisited, executionTime);
+        }
+        String exceededLimit = lastFailure != null ? lastFailure.result.getExceededLimit() : null;
+        return SearchResult.budgetExceeded(bestState, nodesVisited, executionTime, exceededLimit);
+    }
+
+    private boolean isBetter(SearchResult candidate, SearchResult current) {
+        int candidateMoves = candidate.getSolution().getMoves().size();
+        int currentMoves = current.getSolution().getMoves().size();
+        if (candidateMoves != currentMoves) {
+            return candidateMoves < currentMoves;
+        }
+        return candidate.getExecutionTime() < current.getExecutionTime();
+    }
+
+    // Cancelled searches notice it at their next budget check, so this wait is short
+    private static void awaitStopped(CountDownLatch stopped) {
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void cancelAll(List<SearchMonitor> monitors) {
+        for (SearchMonitor monitor : monitors) {
+            monitor.cancel();
+        }
+    }
+
+    // Exact counts for finished searches, last published progress for the rest
+    private long totalNodes(List<SearchMonitor> monitors, long[] finishedNodes) {
+        long total = 0;
+        for (int i = 0; i < monitors.size(); i++) {
+            total += finishedNodes[i] >= 0 ? finishedNodes[i] : monitors.get(i).getNodesExpanded();
+        }
+        return total;
+    }
+
+    @Override
+    public void printSolution(GameState solution) {
+        if (winningSolver == null) {
+            System.out.println("Tidak ada solusi yang ditemukan!");
+            return;
+        }
+        System.out.println("Pemenang portfolio: " + winner);
+        winningSolver.printSolution(solution);
+    }
+
+    // Configuration that produced the returned solution, or null if nothing was solved
+    public Configuration getWinner() {
+        return winner;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    @Override
+    public double getExecutionTime() {
+        return executionTime;
+    }
+}
@@ -0,0 +1,105 @@
+package algorithm;
+
+import core.Board;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Win counts of portfolio configurations per puzzle class, persisted as CSV
+// lines of the form "puzzleClass,configuration,wins,totalMillis".
+public class PortfolioStats {
+    private static class Record {
+        int wins;
+        double totalMillis;
+    }
+
+    private final Map<String, Map<String, Record>> records = new TreeMap<>();
+
+    // Puzzles are grouped by board size, vehicle count and vehicles blocking the primary piece
+    public static String classify(Board board) {
+        return board.getRows() + "x" + board.getCols()
+                + "/v" + board.getPieces().size()
+                + "/b" + (int) Heuristics.blockingVehicles(board);
+    }
+
+    public synchronized void recordWin(String puzzleClass, String configuration, double executionTime) {
+        Record record = records.computeIfAbsent(puzzleClass, k -> new TreeMap<>())
+                .computeIfAbsent(configuration, k -> new Record());
+        record.wins++;
+        record.totalMillis += executionTime;
+    }
+
+    public synchronized int getWins(String puzzleClass, String configuration) {
+        Map<String, Record> byConfiguration = records.get(puzzleClass);
+        if (byConfiguration == null || !byConfiguration.containsKey(configuration)) {
+            return 0;
+        }
+        return byConfiguration.get(configuration).wins;
+    }
+
+    // Configuration that won most often for this class, or null if the class was never seen
+    public synchronized String getBestConfiguration(String puzzleClass) {
+        Map<String, Record> byConfiguration = records.get(puzzleClass);
+        if (byConfiguration == null) {
+            return null;
+        }
+        String best = null;
+        int bestWins = -1;
+        for (Map.Entry<String, Record> entry : byConfiguration.entrySet()) {
+            if (entry.getValue().wins > bestWins) {
+                best = entry.getKey();
+                bestWins = entry.getValue().wins;
+            }
+        }
+        return best;
+    }
+
+    public synchronized void load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length != 4) {
+                    continue;
+                }
+                Record record = records.computeIfAbsent(parts[0], k -> new TreeMap<>())
+                        .computeIfAbsent(parts[1], k -> new Record());
+                record.wins += Integer.parseInt(parts[2]);
+                record.totalMillis += Double.parseDouble(parts[3]);
+            }
+        }
+    }
+
+    public synchronized void save(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Map<String, Record>> byClass : records.entrySet()) {
+                for (Map.Entry<String, Record> entry : byClass.getValue().entrySet()) {
+                    writer.write(byClass.getKey() + "," + entry.getKey() + ","
+                            + entry.getValue().wins + "," + entry.getValue().totalMillis);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Map<String, Record>> byClass : records.entrySet()) {
+            sb.append(byClass.getKey()).append(":");
+            for (Map.Entry<String, Record> entry : byClass.getValue().entrySet()) {
+                sb.append(" ").append(entry.getKey()).append("=").append(entry.getValue().wins);
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
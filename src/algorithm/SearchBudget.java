@@ -0,0 +1,100 @@
+package algorithm;
+
+import core.GameState;
+
+class SearchBudget {
+    // Clock, heap and progress are only sampled every CHECK_INTERVAL expansions to keep the check cheap
+    private static final int CHECK_INTERVAL = 64;
+
+    private final SearchLimits limits;
+    private final SearchMonitor monitor;
+    private final SearchTrace trace;
+    private final long startTime;
+    private final long baselineMemory;
+    private String exceededLimit;
+
+    private GameState bestState;
+    private double bestScore = Double.MAX_VALUE;
+    private double currentBound;
+
+    SearchBudget(SearchLimits limits, long startTime) {
+        this.limits = limits != null ? limits : SearchLimits.none();
+        this.monitor = this.limits.getMonitor();
+        this.trace = this.limits.getTrace();
+        this.startTime = startTime;
+        this.baselineMemory = this.limits.getMaxMemoryBytes() > 0 ? usedMemory() : 0;
+        if (monitor != null) {
+            monitor.start(startTime);
+        }
+    }
+
+    boolean isExhausted(int nodesVisited) {
+        if (monitor != null && monitor.isCancelled()) {
+            exceededLimit = "cancelled";
+            return true;
+        }
+        if (limits.getMaxNodes() > 0 && nodesVisited >= limits.getMaxNodes()) {
+            exceededLimit = "nodes";
+            return true;
+        }
+        if (nodesVisited % CHECK_INTERVAL != 0) {
+            return false;
+        }
+        if (monitor != null) {
+            monitor.update(nodesVisited, currentBound);
+        }
+        if (limits.getTimeLimitMillis() > 0
+                && System.nanoTime() - startTime >= limits.getTimeLimitMillis() * 1_000_000L) {
+            exceededLimit = "time";
+            return true;
+        }
+        if (limits.getMaxMemoryBytes() > 0 && usedMemory() - baselineMemory >= limits.getMaxMemoryBytes()) {
+            exceededLimit = "memory";
+            return true;
+        }
+        return false;
+    }
+
+    // Remembers the expanded state with the lowest score as the anytime best-so-far answer;
+    // bound is the priority the state was expanded with, reported as progress
+    void track(GameState state, double score, double bound) {
+        currentBound = bound;
+        if (score < bestScore || (score == bestScore && bestState != null && state.getG() < bestState.getG())) {
+            bestScore = score;
+            bestState = state;
+        }
+    }
+
+    // Offers the expanded state to the search trace, if one is attached
+    void record(GameState state, int nodesVisited, int frontierSize) {
+        if (trace != null) {
+            trace.record(state, nodesVisited, frontierSize);
+        }
+    }
+
+    void reportSolution(GameState solution) {
+        if (monitor != null) {
+            monitor.reportSolution(solution.getMoves().size());
+        }
+    }
+
+    SearchResult exceeded(int nodesVisited, double executionTime) {
+        if (monitor != null) {
+            monitor.update(nodesVisited, currentBound);
+        }
+        if ("cancelled".equals(exceededLimit)) {
+            return SearchResult.cancelled(bestState, nodesVisited, executionTime);
+        }
+        return SearchResult.budgetExceeded(bestState, nodesVisited, executionTime, exceededLimit);
+    }
+
+    SearchResult outOfMemory(int nodesVisited, double executionTime) {
+        exceededLimit = "memory";
+        return exceeded(nodesVisited, executionTime);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
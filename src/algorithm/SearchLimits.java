@@ -0,0 +1,96 @@
+package algorithm;
+
+public class SearchLimits {
+    private static final SearchLimits NONE = new SearchLimits(0, 0, 0);
+
+    private final long timeLimitMillis;
+    private final long maxNodes;
+    private final long maxMemoryBytes;
+    private final SearchMonitor monitor;
+    private final SearchTrace trace;
+    private final boolean deadlockCheck;
+
+    // A value of 0 means the corresponding limit is disabled
+    public SearchLimits(long timeLimitMillis, long maxNodes, long maxMemoryBytes) {
+        this(timeLimitMillis, maxNodes, maxMemoryBytes, null);
+    }
+
+    public SearchLimits(long timeLimitMillis, long maxNodes, long maxMemoryBytes, SearchMonitor monitor) {
+        this(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, null);
+    }
+
+    public SearchLimits(long timeLimitMillis, long maxNodes, long maxMemoryBytes, SearchMonitor monitor,
+                        SearchTrace trace) {
+        this(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, trace, true);
+    }
+
+    private SearchLimits(long timeLimitMillis, long maxNodes, long maxMemoryBytes, SearchMonitor monitor,
+                         SearchTrace trace, boolean deadlockCheck) {
+        if (timeLimitMillis < 0 || maxNodes < 0 || maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("Search limits must not be negative");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxNodes = maxNodes;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.monitor = monitor;
+        this.trace = trace;
+        this.deadlockCheck = deadlockCheck;
+    }
+
+    public static SearchLimits none() {
+        return NONE;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    public SearchLimits withMonitor(SearchMonitor monitor) {
+        return new SearchLimits(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, trace, deadlockCheck);
+    }
+
+    public SearchLimits withTimeLimit(long timeLimitMillis) {
+        return new SearchLimits(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, trace, deadlockCheck);
+    }
+
+    public SearchLimits withTrace(SearchTrace trace) {
+        return new SearchLimits(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, trace, deadlockCheck);
+    }
+
+    // Searches from scratch even when DeadlockAnalyzer would reject the board, so a reference
+    // solver can cross-check the analyzer
+    public SearchLimits withoutDeadlockCheck() {
+        return new SearchLimits(timeLimitMillis, maxNodes, maxMemoryBytes, monitor, trace, false);
+    }
+
+    // May be null when nobody observes or cancels the search
+    public SearchMonitor getMonitor() {
+        return monitor;
+    }
+
+    // May be null when nobody visualizes the search
+    public SearchTrace getTrace() {
+        return trace;
+    }
+
+    public boolean isDeadlockCheckEnabled() {
+        return deadlockCheck;
+    }
+
+    public boolean isUnlimited() {
+        return timeLimitMillis == 0 && maxNodes == 0 && maxMemoryBytes == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits[time=" + timeLimitMillis + "ms, nodes=" + maxNodes + ", memory=" + maxMemoryBytes + "B]";
+    }
+}
@@ -0,0 +1,53 @@
+package algorithm;
+
+// Shared between a running solver and an observer thread (e.g. the GUI): the
+// observer polls progress and may request cancellation, the solver publishes
+// progress periodically and checks the flag once per expansion.
+public class SearchMonitor {
+    private volatile boolean cancelled;
+    private volatile long startTime = System.nanoTime();
+    private volatile long nodesExpanded;
+    private volatile double fBound;
+    private volatile int bestSolutionMoves = -1;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public double getFBound() {
+        return fBound;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000L;
+    }
+
+    // Length of the best solution reported so far by an anytime solver, or -1
+    public int getBestSolutionMoves() {
+        return bestSolutionMoves;
+    }
+
+    void start(long startTime) {
+        this.startTime = startTime;
+        this.nodesExpanded = 0;
+        this.fBound = 0;
+        this.bestSolutionMoves = -1;
+    }
+
+    void update(long nodesExpanded, double fBound) {
+        this.nodesExpanded = nodesExpanded;
+        this.fBound = fBound;
+    }
+
+    void reportSolution(int moves) {
+        this.bestSolutionMoves = moves;
+    }
+}
@@ -0,0 +1,85 @@
+package algorithm;
+
+import core.GameState;
+
+public class SearchResult {
+    private final SearchStatus status;
+    private final GameState solution;
+    private final GameState bestState;
+    private final int nodesVisited;
+    private final double executionTime;
+    private final String exceededLimit;
+
+    private SearchResult(SearchStatus status, GameState solution, GameState bestState,
+                         int nodesVisited, double executionTime, String exceededLimit) {
+        this.status = status;
+        this.solution = solution;
+        this.bestState = bestState;
+        this.nodesVisited = nodesVisited;
+        this.executionTime = executionTime;
+        this.exceededLimit = exceededLimit;
+    }
+
+    public static SearchResult solved(GameState solution, int nodesVisited, double executionTime) {
+        return new SearchResult(SearchStatus.SOLVED, solution, solution, nodesVisited, executionTime, null);
+    }
+
+    public static SearchResult unsolvable(int nodesVisited, double executionTime) {
+        return new SearchResult(SearchStatus.UNSOLVABLE, null, null, nodesVisited, executionTime, null);
+    }
+
+    public static SearchResult budgetExceeded(GameState bestState, int nodesVisited, double executionTime,
+                                              String exceededLimit) {
+        return new SearchResult(SearchStatus.BUDGET_EXCEEDED, null, bestState, nodesVisited, executionTime,
+                exceededLimit);
+    }
+
+    public static SearchResult cancelled(GameState bestState, int nodesVisited, double executionTime) {
+        return new SearchResult(SearchStatus.CANCELLED, null, bestState, nodesVisited, executionTime, null);
+    }
+
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == SearchStatus.SOLVED;
+    }
+
+    // Null unless the status is SOLVED
+    public GameState getSolution() {
+        return solution;
+    }
+
+    // Closest state to the goal seen so far; the solution itself when solved
+    public GameState getBestState() {
+        return bestState;
+    }
+
+    public int getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public double getExecutionTime() {
+        return executionTime;
+    }
+
+    // "time", "nodes" or "memory" when the status is BUDGET_EXCEEDED, otherwise null
+    public String getExceededLimit() {
+        return exceededLimit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(status.name());
+        if (solution != null) {
+            sb.append(", moves=").append(solution.getMoves().size());
+        }
+        if (exceededLimit != null) {
+            sb.append(", limit=").append(exceededLimit);
+        }
+        sb.append(", nodes=").append(nodesVisited);
+        sb.append(", time=").append(executionTime).append("ms");
+        return sb.toString();
+    }
+}
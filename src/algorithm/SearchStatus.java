@@ -0,0 +1,8 @@
+package algorithm;
+
+public enum SearchStatus {
+    SOLVED,
+    UNSOLVABLE,
+    BUDGET_EXCEEDED,
+    CANCELLED
+}
@@ -0,0 +1,116 @@
+package algorithm;
+
+import core.GameState;
+import core.Move;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Sampled expansion events handed from a running solver to an observer (e.g. the GUI). The
+// solver writes every sampleInterval-th expansion into a fixed ring and never waits; an
+// observer that falls behind loses the oldest events instead of slowing the search down.
+// Meant for one solver thread and one observer thread.
+public class SearchTrace {
+    public static class Event {
+        private final long sequence;
+        private final GameState state;
+        private final long node;
+        private final int frontierSize;
+
+        Event(long sequence, GameState state, long node, int frontierSize) {
+            this.sequence = sequence;
+            this.state = state;
+            this.node = node;
+            this.frontierSize = frontierSize;
+        }
+
+        public GameState getState() {
+            return state;
+        }
+
+        // Number of expansions when this state was expanded
+        public long getNode() {
+            return node;
+        }
+
+        public int getFrontierSize() {
+            return frontierSize;
+        }
+
+        public double getG() {
+            return state.getG();
+        }
+
+        public double getH() {
+            return state.getH();
+        }
+
+        // The edge from the parent, or null for the initial state
+        public Move getMove() {
+            List<Move> moves = state.getMoves();
+            return moves.isEmpty() ? null : moves.get(moves.size() - 1);
+        }
+    }
+
+    private final AtomicReferenceArray<Event> ring;
+    private final int mask;
+    private final int sampleInterval;
+    private volatile long published;
+
+    // Only touched by the solver thread
+    private long expansions;
+
+    // Only touched by the observer thread
+    private long readPosition;
+    private long dropped;
+
+    public SearchTrace(int capacity, int sampleInterval) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.sampleInterval = Math.max(1, sampleInterval);
+    }
+
+    void record(GameState state, long node, int frontierSize) {
+        if (++expansions % sampleInterval != 0) {
+            return;
+        }
+        long sequence = published;
+        ring.lazySet((int) (sequence & mask), new Event(sequence, state, node, frontierSize));
+        published = sequence + 1;
+    }
+
+    // Hands every event published since the last call to the consumer, oldest first, and
+    // returns how many there were. Events already overwritten are counted as dropped.
+    public int drain(Consumer<Event> consumer) {
+        long end = published;
+        if (end - readPosition > ring.length()) {
+            dropped += end - ring.length() - readPosition;
+            readPosition = end - ring.length();
+        }
+        int delivered = 0;
+        for (; readPosition < end; readPosition++) {
+            Event event = ring.get((int) (readPosition & mask));
+            if (event == null || event.sequence != readPosition) {
+                dropped++;
+                continue;
+            }
+            consumer.accept(event);
+            delivered++;
+        }
+        return delivered;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+}
@@ -0,0 +1,218 @@
+package algorithm;
+
+import core.Board;
+import core.BoardLayout;
+import core.GameState;
+import core.Move;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shortens a solution found by any solver with local rewrites, repeated until nothing changes:
+//   - loops: whenever the path revisits a board, everything in between is cut (this also
+//     removes a move directly followed by its undo)
+//   - runs: consecutive moves of the same piece become one move
+//   - shortcuts: a breadth-first search of up to maxDepth moves from each board on the path
+//     looks for a later board within the window that it reaches in fewer moves
+// The result is never longer than the input and still solves the puzzle.
+public class SolutionOptimizer {
+    private static final int DEFAULT_WINDOW = 10;
+    private static final int DEFAULT_MAX_DEPTH = 3;
+    private static final int MAX_SHORTCUT_NODES = 20_000;
+
+    private final int window;
+    private final int maxDepth;
+
+    public SolutionOptimizer() {
+        this(DEFAULT_WINDOW, DEFAULT_MAX_DEPTH);
+    }
+
+    public SolutionOptimizer(int window, int maxDepth) {
+        this.window = window;
+        this.maxDepth = maxDepth;
+    }
+
+    public List<Move> optimize(Board board, List<Move> moves) {
+        BoardLayout layout = new BoardLayout(board);
+        byte[] start = layout.encode(board);
+
+        List<Integer> codes = new ArrayList<>();
+        for (Move move : moves) {
+            int delta = move.getDirection().equals("kiri") || move.getDirection().equals("atas")
+                    ? -move.getSteps() : move.getSteps();
+            codes.add(NodePool.encodeMove(layout.indexOf(move.getPieceId()), delta));
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = removeLoops(start, codes);
+            changed |= mergeRuns(codes);
+            if (!changed) {
+                changed = shortcut(layout, start, codes);
+            }
+        }
+
+        List<Move> optimized = new ArrayList<>();
+        for (int code : codes) {
+            optimized.add(layout.toMove(NodePool.movePiece(code), NodePool.moveDelta(code)));
+        }
+        return optimized;
+    }
+
+    // Replays the optimized moves from the solution's starting board
+    public GameState optimize(Board board, GameState solution) {
+        String heuristicName = solution.getHeuristicName();
+        GameState state = new GameState(board, heuristicName, solution.getCostModel());
+        for (Move move : optimize(board, solution.getMoves())) {
+            state = new GameState(state.getBoard().applyMove(move), state.getMoves(), move, state.getG(),
+                    heuristicName, solution.getCostModel());
+        }
+        return state;
+    }
+
+    private static byte[] apply(byte[] state, int code) {
+        byte[] next = state.clone();
+        next[NodePool.movePiece(code)] += NodePool.moveDelta(code);
+        return next;
+    }
+
+    private static boolean removeLoops(byte[] start, List<Integer> codes) {
+        List<byte[]> path = new ArrayList<>();
+        List<Integer> kept = new ArrayList<>();
+        Map<ByteBuffer, Integer> position = new HashMap<>();
+        path.add(start);
+        position.put(ByteBuffer.wrap(start), 0);
+
+        for (int code : codes) {
+            byte[] next = apply(path.get(path.size() - 1), code);
+            Integer seen = position.get(ByteBuffer.wrap(next));
+            if (seen == null) {
+                path.add(next);
+                kept.add(code);
+                position.put(ByteBuffer.wrap(next), path.size() - 1);
+                continue;
+            }
+            for (int k = path.size() - 1; k > seen; k--) {
+                position.remove(ByteBuffer.wrap(path.remove(k)));
+                kept.remove(k - 1);
+            }
+        }
+
+        boolean changed = kept.size() != codes.size();
+        codes.clear();
+        codes.addAll(kept);
+        return changed;
+    }
+
+    private static boolean mergeRuns(List<Integer> codes) {
+        List<Integer> merged = new ArrayList<>();
+        for (int code : codes) {
+            int last = merged.size() - 1;
+            if (last >= 0 && NodePool.movePiece(merged.get(last)) == NodePool.movePiece(code)) {
+                int delta = NodePool.moveDelta(merged.get(last)) + NodePool.moveDelta(code);
+                merged.remove(last);
+                if (delta != 0) {
+                    merged.add(NodePool.encodeMove(NodePool.movePiece(code), delta));
+                }
+            } else {
+                merged.add(code);
+            }
+        }
+
+        boolean changed = merged.size() != codes.size();
+        codes.clear();
+        codes.addAll(merged);
+        return changed;
+    }
+
+    // Applies the single best shortcut found, if any
+    private boolean shortcut(BoardLayout layout, byte[] start, List<Integer> codes) {
+        List<byte[]> path = new ArrayList<>();
+        path.add(start);
+        for (int code : codes) {
+            path.add(apply(path.get(path.size() - 1), code));
+        }
+
+        for (int i = 0; i + 2 < path.size(); i++) {
+            Map<ByteBuffer, Integer> targets = new HashMap<>();
+            for (int j = i + 2; j <= Math.min(path.size() - 1, i + window); j++) {
+                targets.put(ByteBuffer.wrap(path.get(j)), j);
+            }
+
+            List<Integer> replacement = new ArrayList<>();
+            int end = searchShortcut(layout, path.get(i), i, path.size() - 1, targets, replacement);
+            if (end > 0) {
+                List<Integer> rewritten = new ArrayList<>(codes.subList(0, i));
+                rewritten.addAll(replacement);
+                rewritten.addAll(codes.subList(end, codes.size()));
+                codes.clear();
+                codes.addAll(rewritten);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Breadth-first search from the board at index `from`; returns the index of the path board
+    // with the biggest saving and fills in the moves that reach it, or returns -1. Reaching any
+    // solved board counts as reaching the end of the path.
+    private int searchShortcut(BoardLayout layout, byte[] origin, int from, int last,
+                               Map<ByteBuffer, Integer> targets, List<Integer> replacement) {
+        List<byte[]> states = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        List<Integer> moves = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        Map<ByteBuffer, Integer> seen = new HashMap<>();
+
+        states.add(origin);
+        parents.add(-1);
+        moves.add(0);
+        depths.add(0);
+        seen.put(ByteBuffer.wrap(origin), 0);
+
+        int bestNode = -1;
+        int bestTarget = -1;
+        int bestSaving = 0;
+        for (int head = 0; head < states.size() && states.size() < MAX_SHORTCUT_NODES; head++) {
+            int depth = depths.get(head);
+            if (depth >= maxDepth) {
+                break;
+            }
+            int parent = head;
+            int firstChild = states.size();
+            layout.forEachSuccessor(states.get(head), (successor, piece, delta) -> {
+                ByteBuffer key = ByteBuffer.wrap(successor);
+                if (seen.containsKey(key)) {
+                    return;
+                }
+                byte[] copy = successor.clone();
+                seen.put(ByteBuffer.wrap(copy), states.size());
+                states.add(copy);
+                parents.add(parent);
+                moves.add(NodePool.encodeMove(piece, delta));
+                depths.add(depth + 1);
+            });
+
+            for (int node = firstChild; node < states.size(); node++) {
+                Integer target = layout.isGoal(states.get(node)) ? Integer.valueOf(last)
+                        : targets.get(ByteBuffer.wrap(states.get(node)));
+                if (target != null && (target - from) - (depth + 1) > bestSaving) {
+                    bestSaving = (target - from) - (depth + 1);
+                    bestNode = node;
+                    bestTarget = target;
+                }
+            }
+        }
+
+        if (bestNode < 0) {
+            return -1;
+        }
+        for (int node = bestNode; parents.get(node) >= 0; node = parents.get(node)) {
+            replacement.add(0, moves.get(node));
+        }
+        return bestTarget;
+    }
+}
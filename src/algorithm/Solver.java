@@ -0,0 +1,18 @@
+package algorithm;
+
+import core.Board;
+import core.GameState;
+
+public interface Solver {
+    SearchResult solve(Board initialBoard, SearchLimits limits);
+
+    default GameState solve(Board initialBoard) {
+        return solve(initialBoard, SearchLimits.none()).getSolution();
+    }
+
+    void printSolution(GameState solution);
+
+    int getNodesVisited();
+
+    double getExecutionTime();
+}
@@ -0,0 +1,56 @@
+package algorithm;
+
+import core.CostModel;
+
+public class Solvers {
+    private Solvers() {
+    }
+
+    public static Solver create(String algorithm, String heuristic) {
+        String heuristicName = heuristic != null ? heuristic : "manhattan";
+        switch (algorithm.toLowerCase().trim()) {
+            case "astar":
+                return new AStar(heuristicName);
+            case "compact":
+                return new CompactAStar(heuristicName);
+            case "anytime":
+                return new AnytimeAStar(heuristicName);
+            case "dijkstra":
+                return new Dijkstra();
+            case "gbfs":
+            case "greedy":
+                return new GBFS(heuristicName);
+            case "ucs":
+                return new UCS();
+            case "external":
+                return new ExternalBFS();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    // Solvers that can count cost in cells as well as moves; all others always count moves
+    public static Solver create(String algorithm, String heuristic, CostModel costModel) {
+        Solver solver = create(algorithm, heuristic);
+        if (solver instanceof AStar) {
+            ((AStar) solver).setCostModel(costModel);
+        } else if (solver instanceof Dijkstra) {
+            ((Dijkstra) solver).setCostModel(costModel);
+        } else if (solver instanceof UCS) {
+            ((UCS) solver).setCostModel(costModel);
+        } else if (costModel != CostModel.MOVES) {
+            throw new IllegalArgumentException(algorithm + " only supports the moves cost model");
+        }
+        return solver;
+    }
+
+    public static boolean supportsCostModel(String algorithm) {
+        String name = algorithm.toLowerCase().trim();
+        return name.equals("astar") || name.equals("dijkstra") || name.equals("ucs");
+    }
+
+    public static boolean usesHeuristic(String algorithm) {
+        String name = algorithm.toLowerCase().trim();
+        return !name.equals("ucs") && !name.equals("dijkstra") && !name.equals("external");
+    }
+}
@@ -0,0 +1,34 @@
+package algorithm;
+
+import core.Board;
+import core.BoardLayout;
+
+// Turns boards into the byte[] keys a StateSet stores. Boards that fit BoardLayout's byte
+// positions get its packed form; larger ones fall back to one byte per grid cell.
+final class StateKey {
+    private final BoardLayout layout;
+    private final int size;
+
+    StateKey(Board board) {
+        this.layout = BoardLayout.canEncode(board) ? new BoardLayout(board) : null;
+        this.size = layout != null ? layout.getStateSize() : board.getRows() * board.getCols();
+    }
+
+    int getStateSize() {
+        return size;
+    }
+
+    byte[] encode(Board board) {
+        if (layout != null) {
+            return layout.encode(board);
+        }
+        byte[] key = new byte[size];
+        char[][] grid = board.getGrid();
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getCols(); j++) {
+                key[i * board.getCols() + j] = (byte) grid[i][j];
+            }
+        }
+        return key;
+    }
+}
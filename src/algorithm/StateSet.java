@@ -0,0 +1,19 @@
+package algorithm;
+
+// Set of visited states, keyed by the packed form from core.BoardLayout
+public interface StateSet extends AutoCloseable {
+
+    interface Factory {
+        StateSet create(int stateSize);
+    }
+
+    // Returns true if the state was not in the set yet
+    boolean add(byte[] state);
+
+    boolean contains(byte[] state);
+
+    long size();
+
+    @Override
+    void close();
+}
@@ -1,12 +1,13 @@
 package algorithm;
 
 import core.Board;
+import core.CostModel;
 import core.GameState;
 import core.Move;
 
 import java.util.*;
 
-public class UCS {
+public class UCS implements Solver {
     private static class Node {
         GameState state;
         double cost; 
@@ -21,25 +22,46 @@ public class UCS {
     private double executionTime;
 
     private Board initialBoard;
+    private CostModel costModel = CostModel.MOVES;
 
     public UCS() {
         this.nodesVisited = 0;
         this.executionTime = 0.0;
     }
 
-    public GameState solve(Board board) {
+    @Override
+    public SearchResult solve(Board board, SearchLimits limits) {
         this.initialBoard = board; 
+        nodesVisited = 0;
+        long startTime = System.nanoTime();
+        SearchResult deadlock = DeadlockAnalyzer.check(board, limits, startTime);
+        if (deadlock != null) {
+            executionTime = deadlock.getExecutionTime();
+            return deadlock;
+        }
+        SearchBudget budget = new SearchBudget(limits, startTime);
         
+        try {
+            return search(board, budget, startTime);
+        } catch (OutOfMemoryError e) {
+            executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+            return budget.outOfMemory(nodesVisited, executionTime);
+        }
+    }
+    
+    // How path cost is counted; defaults to one per move
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+    }
+    
+    private SearchResult search(Board board, SearchBudget budget, long startTime) {
         PriorityQueue<Node> openList = new PriorityQueue<>(Comparator.comparingDouble(n -> n.cost));
         Set<GameState> closedList = new HashSet<>();
 
-        GameState initialState = new GameState(board, "none"); 
+        GameState initialState = new GameState(board, "none", costModel); 
         Node initialNode = new Node(initialState, 0, null);
         openList.add(initialNode);
 
-        nodesVisited = 0;
-        long startTime = System.nanoTime();
-
         while (!openList.isEmpty()) {
             Node currentNode = openList.poll();
             GameState currentState = currentNode.state;
@@ -47,7 +69,14 @@ public class UCS {
 
             if (currentState.isGoal()) {
                 executionTime = (System.nanoTime() - startTime) / 1_000_000.0; 
-                return currentState; 
+                return SearchResult.solved(currentState, nodesVisited, executionTime); 
+            }
+
+            budget.track(currentState, Heuristics.manhattanDistance(currentState.getBoard()), currentNode.cost);
+            budget.record(currentState, nodesVisited, openList.size());
+            if (budget.isExhausted(nodesVisited)) {
+                executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
+                return budget.exceeded(nodesVisited, executionTime);
             }
 
             if (closedList.contains(currentState)) {
@@ -65,9 +94,10 @@ public class UCS {
         }
 
         executionTime = (System.nanoTime() - startTime) / 1_000_000.0;
-        return null;
+        return SearchResult.unsolvable(nodesVisited, executionTime);
     }
 
+    @Override
     public void printSolution(GameState solution) {
         if (solution == null) {
             System.out.println("Tidak ada solusi yang ditemukan!");
@@ -89,10 +119,12 @@ public class UCS {
         }
     }
 
+    @Override
     public int getNodesVisited() {
         return nodesVisited;
     }
 
+    @Override
     public double getExecutionTime() {
         return executionTime;
     }
@@ -3,6 +3,7 @@ package core;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -18,10 +19,39 @@ public class Board {
     private int exitCol;
 
     public Board(String filename) throws IOException {
+        this(readLines(filename));
+    }
+
+    private Board(List<String> lines) {
         pieces = new ArrayList<>();
         exitRow = -1;
         exitCol = -1;
-        readBoardFromFile(filename);
+        parseBoard(lines);
+    }
+
+    // Parses a board from text in the same format as the puzzle files
+    public static Board parse(String text) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Board(lines);
+    }
+
+    private static List<String> readLines(String filename) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
     }
 
     public Board(int rows, int cols, char[][] grid, List<Piece> pieces, Piece primaryPiece, int exitRow, int exitCol) {
@@ -41,35 +71,21 @@ public class Board {
         this.exitCol = exitCol;
     }
 
-    private void readBoardFromFile(String filename) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(filename));
-        String[] dimensions = reader.readLine().trim().split("\\s+");
+    private void parseBoard(List<String> lines) {
+        if (lines.size() < 2) {
+            throw new IllegalArgumentException("Missing board dimensions or piece count");
+        }
+        String[] dimensions = lines.get(0).trim().split("\\s+");
         rows = Integer.parseInt(dimensions[0]);
         cols = Integer.parseInt(dimensions[1]);
         grid = new char[rows][cols];
 
-        int numNonPrimaryPieces = Integer.parseInt(reader.readLine().trim());
+        int numNonPrimaryPieces = Integer.parseInt(lines.get(1).trim());
 
         Map<Character, List<int[]>> pieceCells = new HashMap<>();
 
-        int kCount = 0;
-
-        List<String> allLines = new ArrayList<>();
+        List<String> allLines = lines.subList(2, lines.size());
         String line;
-        while ((line = reader.readLine()) != null) {
-            allLines.add(line);
-            for (int i = 0; i < line.length(); i++) {
-                if (line.charAt(i) == 'K') {
-                    kCount++;
-                }
-            }
-        }
-
-        reader.close();
-        reader = new BufferedReader(new FileReader(filename));
-
-        reader.readLine();
-        reader.readLine();
 
         for (int i = 0; i < rows; i++) {
             line = i < allLines.size() ? allLines.get(i) : "";
@@ -78,8 +94,9 @@ public class Board {
             if (line.length() > cols && line.charAt(cols) == 'K') {
                 exitRow = i;
                 exitCol = cols;
-                System.out
-                        .println("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (outside right grid)");
+                if (Log.isDebug()) {
+                    Log.debug("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (outside right grid)");
+                }
             }
 
             for (int j = 0; j < cols; j++) {
@@ -88,7 +105,9 @@ public class Board {
                     exitRow = i;
                     exitCol = j;
                     grid[i][j] = 'K'; 
-                    System.out.println("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (inside grid)");
+                    if (Log.isDebug()) {
+                        Log.debug("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (inside grid)");
+                    }
                 } else {
                     grid[i][j] = c;
                     if (c != '.') {
@@ -104,7 +123,9 @@ public class Board {
             if (kIndex != -1) {
                 exitRow = rows;
                 exitCol = kIndex;
-                System.out.println("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (below grid)");
+                if (Log.isDebug()) {
+                    Log.debug("Debug: Found exit at row " + exitRow + ", col " + exitCol + " (below grid)");
+                }
             }
         }
 
@@ -138,21 +159,21 @@ public class Board {
                     "Expected " + numNonPrimaryPieces + " non-primary pieces, found " + actualNonPrimary);
         }
 
-        System.out.println("Debug: Primary piece at col " + primaryPiece.getCol() + ", row " + primaryPiece.getRow() +
-                ", isHorizontal: " + primaryPiece.isHorizontal());
-        System.out.println("Debug: Exit at col " + exitCol + ", row " + exitRow);
+        if (Log.isDebug()) {
+            Log.debug("Debug: Primary piece at col " + primaryPiece.getCol() + ", row " + primaryPiece.getRow() +
+                    ", isHorizontal: " + primaryPiece.isHorizontal());
+            Log.debug("Debug: Exit at col " + exitCol + ", row " + exitRow);
+        }
 
         if (primaryPiece.isHorizontal()) {
             if (exitRow != primaryPiece.getRow()) {
-                System.out.println("Debug: Exit and primary piece not aligned horizontally");
-                System.out.println("Debug: Exit row: " + exitRow + ", Primary piece row: " + primaryPiece.getRow());
-                throw new IllegalArgumentException("Exit not aligned with horizontal primary piece");
+                throw new IllegalArgumentException("Exit not aligned with horizontal primary piece (exit row "
+                        + exitRow + ", primary piece row " + primaryPiece.getRow() + ")");
             }
         } else {
             if (exitCol != primaryPiece.getCol()) {
-                System.out.println("Debug: Exit and primary piece not aligned vertically");
-                System.out.println("Debug: Exit col: " + exitCol + ", Primary piece col: " + primaryPiece.getCol());
-                throw new IllegalArgumentException("Exit not aligned with vertical primary piece");
+                throw new IllegalArgumentException("Exit not aligned with vertical primary piece (exit col "
+                        + exitCol + ", primary piece col " + primaryPiece.getCol() + ")");
             }
         }
     }
@@ -261,29 +282,34 @@ public class Board {
     }
 
     public void printBoard(Move move) {
+        System.out.print("Papan:\n" + render(move, true) + "\n");
+    }
+
+    // The board as printed by printBoard, one row per line. With color, the primary piece is
+    // red, the moved piece blue and the exit green (ANSI escapes).
+    public String render(Move move, boolean color) {
         char movedPieceId = move != null ? move.getPieceId() : 0;
-        System.out.println("Papan:");
+        StringBuilder out = new StringBuilder(rows * (cols * 2 + 12));
 
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
                 char c = grid[i][j];
-                if (c == 'P') {
-                    System.out.print("\u001B[31m" + c + "\u001B[0m ");
-                } else if (c == movedPieceId && c != '.') {
-                    System.out.print("\u001B[34m" + c + "\u001B[0m ");
+                if (color && c == 'P') {
+                    out.append("\u001B[31m").append(c).append("\u001B[0m ");
+                } else if (color && c == movedPieceId && c != '.') {
+                    out.append("\u001B[34m").append(c).append("\u001B[0m ");
                 } else {
-                    System.out.print(c + " ");
+                    out.append(c).append(' ');
                 }
             }
 
             if (i == exitRow && exitCol == cols) {
-                System.out.print("\u001B[32mK\u001B[0m");
+                out.append(color ? "\u001B[32mK\u001B[0m" : "K");
             }
 
-            System.out.println();
+            out.append('\n');
         }
-
-        System.out.println();
+        return out.toString();
     }
 
     public char[][] getGrid() {
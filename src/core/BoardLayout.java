@@ -0,0 +1,262 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// The parts of a board that never change during a search: dimensions, exit, and each
+// piece's id, size, orientation and lane. A state is then just one byte per piece holding
+// its position along the lane, which is compact enough to sort and stream to disk.
+public class BoardLayout {
+
+    public interface SuccessorVisitor {
+        void visit(byte[] successor, int piece, int delta);
+    }
+
+    public interface StateVisitor {
+        void visit(byte[] state);
+    }
+
+    private final int rows;
+    private final int cols;
+    private final int exitRow;
+    private final int exitCol;
+    private final char[] ids;
+    private final int[] sizes;
+    private final boolean[] horizontal;
+    private final int[] lanes;
+    private final int primaryIndex;
+
+    private final boolean[] occupied;
+    private final byte[] successor;
+
+    // Positions are stored in one signed byte each
+    public static boolean canEncode(Board board) {
+        return board.getRows() <= 127 && board.getCols() <= 127;
+    }
+
+    public BoardLayout(Board board) {
+        if (!canEncode(board)) {
+            throw new IllegalArgumentException("Board too large for byte-packed states");
+        }
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.exitRow = board.getExitRow();
+        this.exitCol = board.getExitCol();
+
+        List<Piece> pieces = board.getPieces();
+        int count = pieces.size();
+        this.ids = new char[count];
+        this.sizes = new int[count];
+        this.horizontal = new boolean[count];
+        this.lanes = new int[count];
+        int primary = -1;
+        for (int i = 0; i < count; i++) {
+            Piece piece = pieces.get(i);
+            ids[i] = piece.getId();
+            sizes[i] = piece.getSize();
+            horizontal[i] = piece.isHorizontal();
+            lanes[i] = piece.isHorizontal() ? piece.getRow() : piece.getCol();
+            if (piece.isPrimary()) {
+                primary = i;
+            }
+        }
+        this.primaryIndex = primary;
+        this.occupied = new boolean[rows * cols];
+        this.successor = new byte[count];
+    }
+
+    public int getStateSize() {
+        return ids.length;
+    }
+
+    public byte[] encode(Board board) {
+        byte[] state = new byte[ids.length];
+        for (Piece piece : board.getPieces()) {
+            int index = indexOf(piece.getId());
+            state[index] = (byte) (horizontal[index] ? piece.getCol() : piece.getRow());
+        }
+        return state;
+    }
+
+    public Board decode(byte[] state) {
+        char[][] grid = new char[rows][cols];
+        for (char[] row : grid) {
+            Arrays.fill(row, '.');
+        }
+        if (exitRow >= 0 && exitRow < rows && exitCol >= 0 && exitCol < cols) {
+            grid[exitRow][exitCol] = 'K';
+        }
+
+        List<Piece> pieces = new ArrayList<>();
+        Piece primary = null;
+        for (int i = 0; i < ids.length; i++) {
+            int row = horizontal[i] ? lanes[i] : state[i];
+            int col = horizontal[i] ? state[i] : lanes[i];
+            Piece piece = new Piece(ids[i], row, col, sizes[i], horizontal[i], i == primaryIndex);
+            for (int[] cell : piece.getOccupiedCells()) {
+                grid[cell[0]][cell[1]] = ids[i];
+            }
+            pieces.add(piece);
+            if (i == primaryIndex) {
+                primary = piece;
+            }
+        }
+        return new Board(rows, cols, grid, pieces, primary, exitRow, exitCol);
+    }
+
+    public boolean isGoal(byte[] state) {
+        int position = state[primaryIndex];
+        int size = sizes[primaryIndex];
+        if (horizontal[primaryIndex]) {
+            if (exitCol == cols) {
+                return position + size == cols;
+            }
+            return exitCol >= position && exitCol < position + size;
+        }
+        if (exitRow == rows) {
+            return position + size == rows;
+        }
+        return exitRow >= position && exitRow < position + size;
+    }
+
+    // Cells the primary piece still has to travel, 0 once it reaches the exit
+    public int distanceToExit(byte[] state) {
+        int end = state[primaryIndex] + sizes[primaryIndex] - 1;
+        if (horizontal[primaryIndex]) {
+            return exitCol >= cols ? cols - 1 - end : Math.abs(end - exitCol);
+        }
+        return exitRow >= rows ? rows - 1 - end : Math.abs(end - exitRow);
+    }
+
+    // Occupied cells on the primary piece's lane between it and the exit. Does not touch the
+    // occupancy buffer, so it is safe to call from inside forEachSuccessor.
+    public int blockingCells(byte[] state) {
+        int position = state[primaryIndex];
+        int end = position + sizes[primaryIndex] - 1;
+        int limit = horizontal[primaryIndex] ? cols : rows;
+        int exit = horizontal[primaryIndex] ? exitCol : exitRow;
+
+        int from;
+        int to;
+        if (exit >= limit) {
+            from = end + 1;
+            to = limit - 1;
+        } else if (exit > end) {
+            from = end + 1;
+            to = exit - 1;
+        } else {
+            from = exit + 1;
+            to = position - 1;
+        }
+        from = Math.max(0, from);
+        to = Math.min(limit - 1, to);
+
+        int lane = lanes[primaryIndex];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == primaryIndex) {
+                continue;
+            }
+            for (int k = 0; k < sizes[i]; k++) {
+                int cell = cellIndex(i, state[i] + k);
+                int row = cell / cols;
+                int col = cell % cols;
+                int along = horizontal[primaryIndex] ? col : row;
+                int across = horizontal[primaryIndex] ? row : col;
+                if (across == lane && along >= from && along <= to) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void fillOccupancy(byte[] state) {
+        Arrays.fill(occupied, false);
+        for (int i = 0; i < ids.length; i++) {
+            for (int k = 0; k < sizes[i]; k++) {
+                occupied[cellIndex(i, state[i] + k)] = true;
+            }
+        }
+    }
+
+    // Calls the visitor once per legal move; the successor array is reused between calls
+    public void forEachSuccessor(byte[] state, SuccessorVisitor visitor) {
+        fillOccupancy(state);
+
+        System.arraycopy(state, 0, successor, 0, state.length);
+        for (int i = 0; i < ids.length; i++) {
+            int position = state[i];
+            int limit = horizontal[i] ? cols : rows;
+            for (int target = position - 1; target >= 0 && !occupied[cellIndex(i, target)]; target--) {
+                successor[i] = (byte) target;
+                visitor.visit(successor, i, target - position);
+            }
+            for (int end = position + sizes[i]; end < limit && !occupied[cellIndex(i, end)]; end++) {
+                successor[i] = (byte) (end - sizes[i] + 1);
+                visitor.visit(successor, i, end - sizes[i] + 1 - position);
+            }
+            successor[i] = (byte) position;
+        }
+    }
+
+    // Every placement of the pieces on their lanes, without overlaps, that has the primary piece
+    // at the exit. The array passed to the visitor is reused.
+    public void forEachGoalState(StateVisitor visitor) {
+        byte[] state = new byte[ids.length];
+        boolean[] used = new boolean[rows * cols];
+        placeFrom(0, state, used, visitor);
+    }
+
+    private void placeFrom(int piece, byte[] state, boolean[] used, StateVisitor visitor) {
+        if (piece == ids.length) {
+            visitor.visit(state);
+            return;
+        }
+        int limit = (horizontal[piece] ? cols : rows) - sizes[piece];
+        for (int position = 0; position <= limit; position++) {
+            state[piece] = (byte) position;
+            if (piece == primaryIndex && !isGoal(state)) {
+                continue;
+            }
+            boolean free = true;
+            for (int k = 0; k < sizes[piece] && free; k++) {
+                free = !used[cellIndex(piece, position + k)];
+            }
+            if (!free) {
+                continue;
+            }
+            for (int k = 0; k < sizes[piece]; k++) {
+                used[cellIndex(piece, position + k)] = true;
+            }
+            placeFrom(piece + 1, state, used, visitor);
+            for (int k = 0; k < sizes[piece]; k++) {
+                used[cellIndex(piece, position + k)] = false;
+            }
+        }
+    }
+
+    private int cellIndex(int piece, int position) {
+        return horizontal[piece] ? lanes[piece] * cols + position : position * cols + lanes[piece];
+    }
+
+    public Move toMove(int piece, int delta) {
+        String direction;
+        if (horizontal[piece]) {
+            direction = delta < 0 ? "kiri" : "kanan";
+        } else {
+            direction = delta < 0 ? "atas" : "bawah";
+        }
+        return new Move(ids[piece], direction, Math.abs(delta));
+    }
+
+    public int indexOf(char id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Piece not found: " + id);
+    }
+}
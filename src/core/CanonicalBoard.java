@@ -0,0 +1,210 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Orientation- and label-independent form of a board. The board is rotated/mirrored so the
+// primary piece is horizontal with the exit on its right, and every other piece is renamed
+// A, B, C, ... in row-major order of its first cell. Of the two remaining mirror images (top
+// and bottom swapped) the one with the smaller key wins, so boards that differ only by
+// symmetry or lettering share the same key. Moves can be mapped in both directions.
+public class CanonicalBoard {
+    private static final String LABELS = "ABCDEFGHIJLMNOQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final boolean transpose;
+    private final boolean flipRows;
+    private final boolean flipCols;
+    private final Map<Character, Character> toCanonicalLabel = new HashMap<>();
+    private final Map<Character, Character> toOriginalLabel = new HashMap<>();
+    private final Board board;
+    private final String key;
+
+    // Every piece but the primary one needs a label of its own
+    public static boolean canLabel(Board board) {
+        return board.getPieces().size() - 1 <= LABELS.length();
+    }
+
+    private CanonicalBoard(Board original, boolean transpose, boolean flipRows, boolean flipCols) {
+        this.transpose = transpose;
+        this.flipRows = flipRows;
+        this.flipCols = flipCols;
+
+        int rows = transpose ? original.getCols() : original.getRows();
+        int cols = transpose ? original.getRows() : original.getCols();
+        char[][] source = original.getGrid();
+        char[][] grid = new char[rows][cols];
+        for (int r = 0; r < original.getRows(); r++) {
+            for (int c = 0; c < original.getCols(); c++) {
+                int[] cell = mapCell(r, c, rows, cols);
+                grid[cell[0]][cell[1]] = source[r][c];
+            }
+        }
+
+        toCanonicalLabel.put('P', 'P');
+        toOriginalLabel.put('P', 'P');
+        int next = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                char id = grid[r][c];
+                if (id == '.' || id == 'K') {
+                    continue;
+                }
+                Character label = toCanonicalLabel.get(id);
+                if (label == null) {
+                    if (next >= LABELS.length()) {
+                        throw new IllegalArgumentException("Too many pieces to canonicalize");
+                    }
+                    label = LABELS.charAt(next++);
+                    toCanonicalLabel.put(id, label);
+                    toOriginalLabel.put(label, id);
+                }
+                grid[r][c] = label;
+            }
+        }
+
+        int[] exit = mapCell(original.getExitRow(), original.getExitCol(), rows, cols);
+        this.board = buildBoard(rows, cols, grid, exit[0], exit[1]);
+
+        StringBuilder keyBuilder = new StringBuilder();
+        keyBuilder.append(rows).append('x').append(cols).append('@').append(exit[0]).append(',').append(exit[1]).append(':');
+        for (char[] row : grid) {
+            keyBuilder.append(row);
+        }
+        this.key = keyBuilder.toString();
+    }
+
+    public static CanonicalBoard of(Board board) {
+        Piece primary = board.getPrimaryPiece();
+        boolean transpose = !primary.isHorizontal();
+        int exitAlong = transpose ? board.getExitRow() : board.getExitCol();
+        int primaryAlong = transpose ? primary.getRow() : primary.getCol();
+        boolean flipCols = exitAlong < primaryAlong;
+
+        CanonicalBoard straight = new CanonicalBoard(board, transpose, false, flipCols);
+        CanonicalBoard mirrored = new CanonicalBoard(board, transpose, true, flipCols);
+        return mirrored.key.compareTo(straight.key) < 0 ? mirrored : straight;
+    }
+
+    // Works for the exit too, which may sit one cell outside the grid
+    private int[] mapCell(int r, int c, int rows, int cols) {
+        int a = transpose ? c : r;
+        int b = transpose ? r : c;
+        if (flipRows) {
+            a = rows - 1 - a;
+        }
+        if (flipCols) {
+            b = cols - 1 - b;
+        }
+        return new int[] { a, b };
+    }
+
+    private static Board buildBoard(int rows, int cols, char[][] grid, int exitRow, int exitCol) {
+        Map<Character, List<int[]>> pieceCells = new LinkedHashMap<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                char id = grid[r][c];
+                if (id != '.' && id != 'K') {
+                    pieceCells.computeIfAbsent(id, k -> new ArrayList<>()).add(new int[] { r, c });
+                }
+            }
+        }
+
+        List<Piece> pieces = new ArrayList<>();
+        Piece primary = null;
+        for (Map.Entry<Character, List<int[]>> entry : pieceCells.entrySet()) {
+            List<int[]> cells = entry.getValue();
+            int[] first = cells.get(0);
+            boolean isHorizontal = cells.size() > 1 && cells.get(1)[0] == first[0];
+            Piece piece = new Piece(entry.getKey(), first[0], first[1], cells.size(), isHorizontal, entry.getKey() == 'P');
+            pieces.add(piece);
+            if (piece.isPrimary()) {
+                primary = piece;
+            }
+        }
+        return new Board(rows, cols, grid, pieces, primary, exitRow, exitCol);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Move toCanonical(Move move) {
+        return mapMove(move, toCanonicalLabel.get(move.getPieceId()), true);
+    }
+
+    public Move toOriginal(Move move) {
+        return mapMove(move, toOriginalLabel.get(move.getPieceId()), false);
+    }
+
+    public List<Move> toOriginal(List<Move> moves) {
+        List<Move> mapped = new ArrayList<>(moves.size());
+        for (Move move : moves) {
+            mapped.add(toOriginal(move));
+        }
+        return mapped;
+    }
+
+    private Move mapMove(Move move, Character pieceId, boolean forward) {
+        if (pieceId == null) {
+            throw new IllegalArgumentException("Piece not found: " + move.getPieceId());
+        }
+        int dr = 0;
+        int dc = 0;
+        switch (move.getDirection()) {
+            case "atas":
+                dr = -1;
+                break;
+            case "bawah":
+                dr = 1;
+                break;
+            case "kiri":
+                dc = -1;
+                break;
+            default:
+                dc = 1;
+                break;
+        }
+
+        if (forward && transpose) {
+            int swap = dr;
+            dr = dc;
+            dc = swap;
+        }
+        if (flipRows) {
+            dr = -dr;
+        }
+        if (flipCols) {
+            dc = -dc;
+        }
+        if (!forward && transpose) {
+            int swap = dr;
+            dr = dc;
+            dc = swap;
+        }
+
+        String direction = dr < 0 ? "atas" : dr > 0 ? "bawah" : dc < 0 ? "kiri" : "kanan";
+        return new Move(pieceId, direction, move.getSteps());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CanonicalBoard && key.equals(((CanonicalBoard) other).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
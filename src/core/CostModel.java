@@ -0,0 +1,26 @@
+package core;
+
+// How the cost of a solution is measured. MOVES counts every move as 1 no matter how far the
+// piece slides; CELLS counts the number of cells moved, so "A-kanan-3" costs 3.
+public enum CostModel {
+    MOVES,
+    CELLS;
+
+    public double cost(Move move) {
+        return this == CELLS ? move.getSteps() : 1;
+    }
+
+    public static CostModel fromName(String name) {
+        if (name == null) {
+            return MOVES;
+        }
+        switch (name.toLowerCase().trim()) {
+            case "moves":
+                return MOVES;
+            case "cells":
+                return CELLS;
+            default:
+                throw new IllegalArgumentException("Unknown cost model: " + name);
+        }
+    }
+}
@@ -12,28 +12,28 @@ public class GameState {
     private final double h; 
     private final double f; 
     private final String heuristicName; 
+    private final CostModel costModel;
 
     public GameState(Board board) {
         this(board, "manhattan");
     }
 
     public GameState(Board board, String heuristicName) {
+        this(board, heuristicName, CostModel.MOVES);
+    }
+
+    public GameState(Board board, String heuristicName, CostModel costModel) {
         this.board = board;
         this.moves = new ArrayList<>();
         this.g = 0;
         this.heuristicName = heuristicName;
+        this.costModel = costModel;
         this.h = heuristicName.equals("none") ? 0 : computeHeuristic(); 
         this.f = g + h;
     }
 
     public GameState(Board board, List<Move> parentMoves, Move newMove, double parentG, boolean isUCS) {
-        this.board = board;
-        this.moves = new ArrayList<>(parentMoves);
-        this.moves.add(newMove);
-        this.g = parentG + 1;
-        this.heuristicName = "none";
-        this.h = isUCS ? 0 : computeHeuristic(); 
-        this.f = g + h;
+        this(board, parentMoves, newMove, parentG, "none", CostModel.MOVES);
     }
 
     public GameState(Board board, List<Move> parentMoves, Move newMove, double parentG) {
@@ -41,11 +41,17 @@ public class GameState {
     }
 
     public GameState(Board board, List<Move> parentMoves, Move newMove, double parentG, String heuristicName) {
+        this(board, parentMoves, newMove, parentG, heuristicName, CostModel.MOVES);
+    }
+
+    public GameState(Board board, List<Move> parentMoves, Move newMove, double parentG, String heuristicName,
+                     CostModel costModel) {
         this.board = board;
         this.moves = new ArrayList<>(parentMoves);
         this.moves.add(newMove);
-        this.g = parentG + 1;
+        this.g = parentG + costModel.cost(newMove);
         this.heuristicName = heuristicName;
+        this.costModel = costModel;
         this.h = heuristicName.equals("none") ? 0 : computeHeuristic(); 
         this.f = g + h;
     }
@@ -66,7 +72,7 @@ public class GameState {
                 return Math.abs(pieceEndRow - exitRow);
             }
         } else {
-            return Heuristics.getHeuristic(board, heuristicName);
+            return Heuristics.getHeuristic(board, heuristicName, costModel);
         }
     }
 
@@ -75,14 +81,8 @@ public class GameState {
         List<GameState> successors = new ArrayList<>();
         for (Move move : board.getAllPossibleMoves()) {
             Board newBoard = board.applyMove(move);
-            boolean isUCS = heuristicName.equals("none");
-            if (isUCS) {
-                GameState successor = new GameState(newBoard, moves, move, g, true);
-                successors.add(successor);
-            } else {
-                GameState successor = new GameState(newBoard, moves, move, g, heuristicName);
-                successors.add(successor);
-            }
+            GameState successor = new GameState(newBoard, moves, move, g, heuristicName, costModel);
+            successors.add(successor);
         }
         return successors;
     }
@@ -111,6 +111,10 @@ public class GameState {
         return heuristicName;
     }
 
+    public CostModel getCostModel() {
+        return costModel;
+    }
+
     public boolean isGoal() {
         return board.isSolved();
     }
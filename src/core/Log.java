@@ -0,0 +1,79 @@
+package core;
+
+// Console output with a process-wide verbosity level. Anything printed while parsing or
+// solving goes through here so batch runs and the service can turn it off; callers that
+// build a message by concatenation check isDebug()/isInfo() first so nothing is built
+// when the level is off. The level can also be set with -Drushhour.log=quiet|error|info|debug.
+public final class Log {
+    public enum Level {
+        QUIET, ERROR, INFO, DEBUG;
+
+        public static Level fromName(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private static volatile Level level = initialLevel();
+
+    private Log() {
+    }
+
+    private static Level initialLevel() {
+        String name = System.getProperty("rushhour.log");
+        if (name == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.fromName(name);
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static boolean isDebug() {
+        return level == Level.DEBUG;
+    }
+
+    public static boolean isInfo() {
+        return level.compareTo(Level.INFO) >= 0;
+    }
+
+    public static boolean isError() {
+        return level != Level.QUIET;
+    }
+
+    public static void debug(String message) {
+        if (isDebug()) {
+            System.out.println(message);
+        }
+    }
+
+    public static void info(String message) {
+        if (isInfo()) {
+            System.out.println(message);
+        }
+    }
+
+    public static void error(String message) {
+        if (isError()) {
+            System.err.println(message);
+        }
+    }
+
+    public static void error(String message, Throwable cause) {
+        if (isError()) {
+            System.err.println(message);
+            if (isDebug()) {
+                cause.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package core;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Independent check that a move list really solves a board. The moves are replayed on a flat
+// occupancy grid that is set up once per call; every move is checked for an existing piece,
+// a direction along the piece's orientation and free cells for each step, and the primary
+// piece must be at the exit after the last move. Nothing is allocated per move, so batches
+// can be verified quickly. Keeps scratch buffers between calls, so use one instance per thread.
+public class SolutionVerifier {
+    public static class Result {
+        private static final Result VALID = new Result(-1, null);
+
+        private final int failedMove;
+        private final String reason;
+
+        private Result(int failedMove, String reason) {
+            this.failedMove = failedMove;
+            this.reason = reason;
+        }
+
+        public boolean isValid() {
+            return reason == null;
+        }
+
+        // Index of the first illegal move, or the move count when the moves are legal but the
+        // puzzle is not solved at the end; -1 for a valid solution
+        public int getFailedMove() {
+            return failedMove;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return isValid() ? "valid" : "move " + failedMove + ": " + reason;
+        }
+    }
+
+    private static final char EMPTY = 0;
+
+    private char[] cells = new char[0];
+    private int[] row = new int[0];
+    private int[] col = new int[0];
+    private int[] size = new int[0];
+    private boolean[] horizontal = new boolean[0];
+    private char[] ids = new char[0];
+    private final int[] asciiIndex = new int[128];
+
+    public boolean isValid(Board board, List<Move> moves) {
+        return verify(board, moves).isValid();
+    }
+
+    public Result verify(Board board, List<Move> moves) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int count = load(board);
+        int primary = indexOf(board.getPrimaryPiece().getId(), count);
+
+        for (int m = 0; m < moves.size(); m++) {
+            Move move = moves.get(m);
+            int p = indexOf(move.getPieceId(), count);
+            if (p < 0) {
+                return new Result(m, "no piece " + move.getPieceId());
+            }
+            int dr = 0;
+            int dc = 0;
+            switch (move.getDirection()) {
+                case "kiri":
+                    dc = -1;
+                    break;
+                case "kanan":
+                    dc = 1;
+                    break;
+                case "atas":
+                    dr = -1;
+                    break;
+                case "bawah":
+                    dr = 1;
+                    break;
+                default:
+                    return new Result(m, "invalid direction " + move.getDirection());
+            }
+            if (horizontal[p] != (dc != 0)) {
+                return new Result(m, move + " moves " + move.getPieceId() + " across its orientation");
+            }
+
+            // Walk the leading edge one cell at a time, vacating the trailing cell behind it
+            int steps = move.getSteps();
+            for (int s = 0; s < steps; s++) {
+                int leadRow = dr > 0 ? row[p] + size[p] : dr < 0 ? row[p] - 1 : row[p];
+                int leadCol = dc > 0 ? col[p] + size[p] : dc < 0 ? col[p] - 1 : col[p];
+                if (leadRow < 0 || leadRow >= rows || leadCol < 0 || leadCol >= cols) {
+                    return new Result(m, move + " leaves the board");
+                }
+                if (cells[leadRow * cols + leadCol] != EMPTY) {
+                    return new Result(m, move + " is blocked by " + cells[leadRow * cols + leadCol]);
+                }
+                int tailRow = dr > 0 ? row[p] : dr < 0 ? row[p] + size[p] - 1 : row[p];
+                int tailCol = dc > 0 ? col[p] : dc < 0 ? col[p] + size[p] - 1 : col[p];
+                cells[leadRow * cols + leadCol] = ids[p];
+                cells[tailRow * cols + tailCol] = EMPTY;
+                row[p] += dr;
+                col[p] += dc;
+            }
+        }
+
+        if (!isSolved(board, primary)) {
+            return new Result(moves.size(), "the primary piece does not reach the exit");
+        }
+        return Result.VALID;
+    }
+
+    // Same rule as Board.isSolved, on the replayed position
+    private boolean isSolved(Board board, int primary) {
+        int exitRow = board.getExitRow();
+        int exitCol = board.getExitCol();
+        if (horizontal[primary]) {
+            if (row[primary] != exitRow) {
+                return false;
+            }
+            if (exitCol == board.getCols()) {
+                return col[primary] + size[primary] == exitCol;
+            }
+            return exitCol >= col[primary] && exitCol < col[primary] + size[primary];
+        }
+        if (col[primary] != exitCol) {
+            return false;
+        }
+        if (exitRow == board.getRows()) {
+            return row[primary] + size[primary] == exitRow;
+        }
+        return exitRow >= row[primary] && exitRow < row[primary] + size[primary];
+    }
+
+    private int load(Board board) {
+        int area = board.getRows() * board.getCols();
+        if (cells.length < area) {
+            cells = new char[area];
+        } else {
+            Arrays.fill(cells, 0, area, EMPTY);
+        }
+
+        List<Piece> pieces = board.getPieces();
+        int count = pieces.size();
+        if (ids.length < count) {
+            row = new int[count];
+            col = new int[count];
+            size = new int[count];
+            horizontal = new boolean[count];
+            ids = new char[count];
+        }
+        Arrays.fill(asciiIndex, -1);
+
+        int cols = board.getCols();
+        for (int i = 0; i < count; i++) {
+            Piece piece = pieces.get(i);
+            ids[i] = piece.getId();
+            row[i] = piece.getRow();
+            col[i] = piece.getCol();
+            size[i] = piece.getSize();
+            horizontal[i] = piece.isHorizontal();
+            if (ids[i] < asciiIndex.length) {
+                asciiIndex[ids[i]] = i;
+            }
+            for (int k = 0; k < size[i]; k++) {
+                int r = row[i] + (horizontal[i] ? 0 : k);
+                int c = col[i] + (horizontal[i] ? k : 0);
+                if (r >= 0 && r < board.getRows() && c >= 0 && c < cols) {
+                    cells[r * cols + c] = ids[i];
+                }
+            }
+        }
+        return count;
+    }
+
+    private int indexOf(char id, int count) {
+        if (id < asciiIndex.length) {
+            return asciiIndex[id];
+        }
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,200 @@
+package core;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Writes solutions to a stream, one after another, so a whole batch can go into one file.
+// Everything passes through one large buffer and text is assembled in a reused StringBuilder,
+// so the cost is the I/O and not many small writes. Formats:
+//   HUMAN   - the starting board and the board after every move, as the solvers print them
+//   COMPACT - a "# name N" header line, then one move per line (e.g. "A-kanan-2"), then a blank line
+//   JSON    - one object per line: {"name":...,"rows":6,"cols":6,"moveCount":N,"moves":["A-kanan-2",...]}
+//   BINARY  - "RHS2" once, then per solution: name (writeUTF), rows, cols (unsigned shorts), move
+//             count (int), and per move: piece id (byte), direction (byte: 0 kiri, 1 kanan, 2 atas,
+//             3 bawah), steps (unsigned short). Values that do not fit are rejected, not truncated.
+public class SolutionWriter implements Closeable, Flushable {
+    public enum Format {
+        HUMAN, COMPACT, JSON, BINARY;
+
+        public static Format fromName(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] BINARY_MAGIC = {'R', 'H', 'S', '2'};
+    private static final String[] DIRECTIONS = {"kiri", "kanan", "atas", "bawah"};
+
+    private final DataOutputStream out;
+    private final Format format;
+    private final StringBuilder text = new StringBuilder(4096);
+    private boolean headerWritten;
+
+    public SolutionWriter(OutputStream out, Format format) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.format = format;
+    }
+
+    public void write(Board initialBoard, List<Move> moves) throws IOException {
+        write(null, initialBoard, moves);
+    }
+
+    // name identifies the puzzle in a batch (e.g. its file name) and may be null
+    public void write(String name, Board initialBoard, List<Move> moves) throws IOException {
+        switch (format) {
+            case HUMAN:
+                writeHuman(name, initialBoard, moves);
+                break;
+            case COMPACT:
+                writeCompact(name, moves);
+                break;
+            case JSON:
+                writeJson(name, initialBoard, moves);
+                break;
+            case BINARY:
+                writeBinary(name, initialBoard, moves);
+                return;
+        }
+        flushText();
+    }
+
+    private void writeHuman(String name, Board initialBoard, List<Move> moves) throws IOException {
+        if (name != null) {
+            text.append("=== ").append(name).append(" ===\n");
+        }
+        text.append("Papan Awal\n").append(initialBoard.render(null, false)).append('\n');
+        Board board = initialBoard;
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            board = board.applyMove(move);
+            text.append("Gerakan ").append(i + 1).append(": ").append(move).append('\n');
+            text.append(board.render(move, false)).append('\n');
+            if (text.length() >= BUFFER_SIZE) {
+                flushText();
+            }
+        }
+        text.append("Solusi ditemukan dalam ").append(moves.size()).append(" langkah\n\n");
+    }
+
+    private void writeCompact(String name, List<Move> moves) {
+        text.append("# ");
+        if (name != null) {
+            text.append(name).append(' ');
+        }
+        text.append(moves.size()).append('\n');
+        for (Move move : moves) {
+            appendMove(move);
+            text.append('\n');
+        }
+        text.append('\n');
+    }
+
+    private void writeJson(String name, Board initialBoard, List<Move> moves) {
+        text.append("{\"name\":");
+        if (name != null) {
+            appendJsonString(name);
+        } else {
+            text.append("null");
+        }
+        text.append(",\"rows\":").append(initialBoard.getRows());
+        text.append(",\"cols\":").append(initialBoard.getCols());
+        text.append(",\"moveCount\":").append(moves.size());
+        text.append(",\"moves\":[");
+        for (int i = 0; i < moves.size(); i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append('"');
+            appendMove(moves.get(i));
+            text.append('"');
+        }
+        text.append("]}\n");
+    }
+
+    private void writeBinary(String name, Board initialBoard, List<Move> moves) throws IOException {
+        // Checked up front so a rejected solution leaves no partial record behind
+        checkShort(initialBoard.getRows(), "rows");
+        checkShort(initialBoard.getCols(), "cols");
+        for (Move move : moves) {
+            if (move.getPieceId() > 0xFF) {
+                throw new IOException("Piece id " + move.getPieceId() + " does not fit in a byte");
+            }
+            checkShort(move.getSteps(), "steps");
+        }
+
+        if (!headerWritten) {
+            out.write(BINARY_MAGIC);
+            headerWritten = true;
+        }
+        out.writeUTF(name != null ? name : "");
+        out.writeShort(initialBoard.getRows());
+        out.writeShort(initialBoard.getCols());
+        out.writeInt(moves.size());
+        for (Move move : moves) {
+            out.writeByte(move.getPieceId());
+            out.writeByte(directionCode(move.getDirection()));
+            out.writeShort(move.getSteps());
+        }
+    }
+
+    private static void checkShort(int value, String field) throws IOException {
+        if (value < 0 || value > 0xFFFF) {
+            throw new IOException("Value of " + field + " out of range for the binary format: " + value);
+        }
+    }
+
+    // Same text as Move.toString, without the intermediate strings
+    private void appendMove(Move move) {
+        text.append(move.getPieceId()).append('-').append(move.getDirection());
+        if (move.getSteps() != 1) {
+            text.append('-').append(move.getSteps());
+        }
+    }
+
+    private void appendJsonString(String value) {
+        text.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\').append(c);
+            } else if (c < 0x20) {
+                text.append(String.format("\\u%04x", (int) c));
+            } else {
+                text.append(c);
+            }
+        }
+        text.append('"');
+    }
+
+    private static int directionCode(String direction) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            if (DIRECTIONS[i].equals(direction)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid direction: " + direction);
+    }
+
+    private void flushText() throws IOException {
+        if (text.length() > 0) {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+            text.setLength(0);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
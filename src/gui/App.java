@@ -6,6 +6,7 @@ import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
@@ -27,6 +28,8 @@ public class App extends Application {
     private StackPane rootContainer;
     
     private BoardPane boardPane;
+    private CanvasBoardView canvasBoardView;
+    private BorderPane boardContainer;
     private ControlPanel controlPanel;
     private Renderer renderer;
     private BorderPane gameRoot;
@@ -58,7 +61,7 @@ public class App extends Application {
         renderer = new Renderer(boardPane);
         controlPanel = new ControlPanel(renderer);
         
-        BorderPane boardContainer = new BorderPane();
+        boardContainer = new BorderPane();
         boardContainer.setCenter(boardPane);
         boardContainer.setPrefWidth(Double.MAX_VALUE);
         boardContainer.setPrefHeight(Double.MAX_VALUE);
@@ -89,6 +92,20 @@ public class App extends Application {
         setupMenuBar();
     }
 
+    // The canvas view is created the first time it is chosen; the renderer redraws the current
+    // step on whichever view is shown
+    private void useCanvasRenderer(boolean canvas) {
+        BoardView view = boardPane;
+        if (canvas) {
+            if (canvasBoardView == null) {
+                canvasBoardView = new CanvasBoardView();
+            }
+            view = canvasBoardView;
+        }
+        boardContainer.setCenter(view.getNode());
+        renderer.setBoardView(view);
+    }
+
     private void setupMenuBar() {
         MenuBar menuBar = new MenuBar();
         
@@ -122,7 +139,11 @@ public class App extends Application {
         creatorItem.setOnAction(e -> navigateTo(PageType.CREATOR));
         aboutItem.setOnAction(e -> navigateTo(PageType.ABOUT));
         
-        viewMenu.getItems().addAll(creatorItem, aboutItem);
+        CheckMenuItem canvasItem = new CheckMenuItem("Canvas Board Renderer");
+        canvasItem.getStyleClass().add("custom-menu-item");
+        canvasItem.setOnAction(e -> useCanvasRenderer(canvasItem.isSelected()));
+        
+        viewMenu.getItems().addAll(creatorItem, aboutItem, new SeparatorMenuItem(), canvasItem);
         
         menuBar.getMenus().addAll(fileMenu, viewMenu);
         
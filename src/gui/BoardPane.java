@@ -1,7 +1,9 @@
 package gui;
 
+import core.Log;
 import javafx.animation.TranslateTransition;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -14,12 +16,15 @@ import javafx.scene.text.Text;
 import java.util.HashMap;
 import java.util.Map;
 
-public class BoardPane extends GridPane {
+public class BoardPane extends GridPane implements BoardView {
     
     private int rows = 6;
     private int cols = 6;
     private double cellSize = 60;
     private Map<Character, StackPane> pieceMap;
+    private Map<Character, int[]> piecePositions;
+    private Map<Character, TranslateTransition> transitions;
+    private Text[][] dots;
     private char[][] board;
     
     private int exitRow = -1;
@@ -31,6 +36,8 @@ public class BoardPane extends GridPane {
     public BoardPane() {
         this.getStyleClass().add("board-pane");
         pieceMap = new HashMap<>();
+        piecePositions = new HashMap<>();
+        transitions = new HashMap<>();
         
         setHgap(2);
         setVgap(2);
@@ -39,9 +46,15 @@ public class BoardPane extends GridPane {
         this.setMaxWidth((cols + 1) * (cellSize + 2) + 30);
         this.setMaxHeight((rows + 1) * (cellSize + 2) + 30);
         
-        System.out.println("Working directory: " + System.getProperty("user.dir"));
+        Log.debug("Working directory: " + System.getProperty("user.dir"));
     }
 
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
     public void initializeBoard(char[][] board) {
         this.board = board;
         this.rows = board.length;
@@ -49,49 +62,38 @@ public class BoardPane extends GridPane {
 
         this.getChildren().clear();
         pieceMap.clear();
+        transitions.clear();
+        dots = new Text[rows][cols];
 
         try {
-            findExitPosition();
+            int[] exit = findExit(board);
+            exitRow = exit[0];
+            exitCol = exit[1];
             calculateGridDimensions();
 
-            System.out.println("Board contents:");
-            for (int i = 0; i < board.length; i++) {
-                System.out.println(new String(board[i]));
+            if (Log.isDebug()) {
+                Log.debug("Board contents:");
+                for (int i = 0; i < board.length; i++) {
+                    Log.debug(new String(board[i]));
+                }
+                Log.debug("Exit position: row=" + exitRow + ", col=" + exitCol);
+                Log.debug("Grid dimensions: rows=" + gridRows + ", cols=" + gridCols);
             }
-            System.out.println("Exit position: row=" + exitRow + ", col=" + exitCol);
-            System.out.println("Grid dimensions: rows=" + gridRows + ", cols=" + gridCols);
 
             createEmptyCells();
             placePieces();
+            piecePositions = findPiecePositions(board);
             
             if (exitRow >= 0 && exitCol >= 0) {
                 placeExitDoor();
             } else {
-                System.err.println("WARNING: No exit door (K) found in the board!");
+                Log.error("WARNING: No exit door (K) found in the board!");
             }
         } catch (RuntimeException e) {
-            System.err.println(e.getMessage());
+            Log.error(e.getMessage());
         }
     }
 
-    private void findExitPosition() {
-        exitRow = -1;
-        exitCol = -1;
-        
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
-                if (board[row][col] == 'K') {
-                    exitRow = row;
-                    exitCol = col;
-                    System.out.println("Exit found in board at [" + row + "," + col + "]");
-                    return;
-                }
-            }
-        }
-        
-        System.out.println("Exit not found in board matrix");
-    }
-
     private void calculateGridDimensions() {
         gridRows = rows;
         gridCols = cols;
@@ -100,25 +102,30 @@ public class BoardPane extends GridPane {
     private void createEmptyCells() {
         for (int row = 0; row < gridRows; row++) {
             for (int col = 0; col < gridCols; col++) {
-                Rectangle cell = new Rectangle(cellSize, cellSize);
-                cell.getStyleClass().add("rectangle-cell");
-                cell.setFill(Color.web("#f5f5f5"));
-                cell.setStroke(Color.web("#e0e0e0"));
-                cell.setStrokeWidth(1);
-                cell.setArcWidth(5);
-                cell.setArcHeight(5);
-                add(cell, col, row);
+                add(createCell(cellSize), col, row);
             }
         }
     }
 
+    // The node factories are shared with CanvasBoardView, which snapshots them into sprites
+    static Rectangle createCell(double size) {
+        Rectangle cell = new Rectangle(size, size);
+        cell.getStyleClass().add("rectangle-cell");
+        cell.setFill(Color.web("#f5f5f5"));
+        cell.setStroke(Color.web("#e0e0e0"));
+        cell.setStrokeWidth(1);
+        cell.setArcWidth(5);
+        cell.setArcHeight(5);
+        return cell;
+    }
+
     private void placeExitDoor() {
         if (exitRow < 0 || exitCol < 0 || exitRow >= board.length || exitCol >= board[0].length) {
-            System.err.println("ERROR: Exit position [" + exitRow + "," + exitCol + "] is out of bounds!");
+            Log.error("ERROR: Exit position [" + exitRow + "," + exitCol + "] is out of bounds!");
             return;
         }
         
-        StackPane exitNode = createExitNode();
+        StackPane exitNode = createExitNode(cellSize);
         
         getChildren().removeIf(node -> {
             Integer colIndex = GridPane.getColumnIndex(node);
@@ -128,14 +135,14 @@ public class BoardPane extends GridPane {
         });
         
         add(exitNode, exitCol, exitRow);
-        System.out.println("Placed EXIT door at row=" + exitRow + ", col=" + exitCol);
+        Log.debug("Placed EXIT door at row=" + exitRow + ", col=" + exitCol);
         
         pieceMap.put('K', exitNode);
     }
 
-    private StackPane createExitNode() {
+    static StackPane createExitNode(double size) {
         StackPane exitPane = new StackPane();
-        Rectangle exitRect = new Rectangle(cellSize, cellSize);
+        Rectangle exitRect = new Rectangle(size, size);
         exitRect.getStyleClass().add("exit-door");
         
         exitRect.setFill(Color.web("#FF5722")); 
@@ -159,11 +166,15 @@ public class BoardPane extends GridPane {
                     char piece = board[row][col];
                     if (piece != '.' && piece != 'K') {
                         placePiece(piece, row, col);
-                    } else if (piece == '.') {
+                    }
+                    if (piece != 'K') {
+                        // Every cell gets a dot so a diffed update only has to toggle visibility
                         Text dotText = new Text(".");
                         dotText.setFill(Color.LIGHTGRAY);
                         dotText.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+                        dotText.setVisible(piece == '.');
                         add(dotText, col, row);
+                        dots[row][col] = dotText;
                     }
                 }
             }
@@ -172,8 +183,9 @@ public class BoardPane extends GridPane {
     
     private void placePiece(char piece, int row, int col) {
         if (!pieceMap.containsKey(piece)) {
-            StackPane pieceNode = createPieceNode(piece);
+            StackPane pieceNode = createPieceNode(piece, cellSize, cellSize);
             add(pieceNode, col, row);
+            pieceNode.setViewOrder(-1);
             
             pieceMap.put(piece, pieceNode);
             
@@ -191,9 +203,9 @@ public class BoardPane extends GridPane {
         }
     }
     
-    private StackPane createPieceNode(char piece) {
+    static StackPane createPieceNode(char piece, double width, double height) {
         StackPane piecePane = new StackPane();
-        Rectangle rect = createPieceRectangle(piece);
+        Rectangle rect = createPieceRectangle(piece, width, height);
         
         Text pieceText = new Text(String.valueOf(piece));
         pieceText.setFill(Color.WHITE);
@@ -203,8 +215,8 @@ public class BoardPane extends GridPane {
         return piecePane;
     }
     
-    private Rectangle createPieceRectangle(char piece) {
-        Rectangle rect = new Rectangle(cellSize, cellSize);
+    private static Rectangle createPieceRectangle(char piece, double width, double height) {
+        Rectangle rect = new Rectangle(width, height);
         
         if (piece == 'P') {
             rect.getStyleClass().add("primary-piece");
@@ -253,34 +265,144 @@ public class BoardPane extends GridPane {
         return size;
     }
     
+    @Override
     public void movePiece(char piece, String direction, int steps) {
         if (!pieceMap.containsKey(piece)) return;
         
-        StackPane pieceNode = pieceMap.get(piece);
-        TranslateTransition transition = new TranslateTransition(Duration.millis(500), pieceNode);
-        
+        double byX = 0;
+        double byY = 0;
         switch (direction) {
             case "up":
-                transition.setByY(-(cellSize + getVgap()) * steps);
+                byY = -(cellSize + getVgap()) * steps;
                 break;
             case "down":
-                transition.setByY((cellSize + getVgap()) * steps);
+                byY = (cellSize + getVgap()) * steps;
                 break;
             case "left":
-                transition.setByX(-(cellSize + getHgap()) * steps);
+                byX = -(cellSize + getHgap()) * steps;
                 break;
             case "right":
-                transition.setByX((cellSize + getHgap()) * steps);
+                byX = (cellSize + getHgap()) * steps;
                 break;
         }
         
+        slide(piece, byX, byY);
+    }
+    
+    // Only one transition runs per piece; a newer one takes over from wherever the old one stopped
+    private void slide(char piece, double byX, double byY) {
+        StackPane pieceNode = pieceMap.get(piece);
+        TranslateTransition running = transitions.get(piece);
+        if (running != null) {
+            running.stop();
+        }
+        TranslateTransition transition = new TranslateTransition(Duration.millis(500), pieceNode);
+        transition.setByX(byX);
+        transition.setByY(byY);
+        transitions.put(piece, transition);
         transition.play();
     }
     
+    // Moves only the pieces whose position changed, reusing their nodes. Anything that is not a
+    // plain move (new size, exit, or set of pieces) falls back to building the board again.
+    @Override
     public void updateBoard(char[][] newBoard) {
+        Map<Character, int[]> newPositions = findPiecePositions(newBoard);
+        if (board == null || dots == null
+                || !sameLayout(newBoard, newPositions, rows, cols, exitRow, exitCol, piecePositions)) {
+            initializeBoard(newBoard);
+            return;
+        }
+
+        for (Map.Entry<Character, int[]> entry : newPositions.entrySet()) {
+            char piece = entry.getKey();
+            int[] from = piecePositions.get(piece);
+            int[] to = entry.getValue();
+            if (from[0] != to[0] || from[1] != to[1]) {
+                showMove(piece, from, to);
+            }
+        }
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (dots[row][col] != null) {
+                    dots[row][col].setVisible(newBoard[row][col] == '.');
+                }
+            }
+        }
+
         this.board = newBoard;
-        this.getChildren().clear();
-        pieceMap.clear();
-        initializeBoard(newBoard);
+        this.piecePositions = newPositions;
+    }
+
+    // The node jumps to its new grid cell, is shifted back to where it was drawn, and then
+    // slides into place
+    private void showMove(char piece, int[] from, int[] to) {
+        StackPane pieceNode = pieceMap.get(piece);
+        TranslateTransition running = transitions.remove(piece);
+        if (running != null) {
+            running.stop();
+        }
+        double startX = pieceNode.getTranslateX() + (from[1] - to[1]) * (cellSize + getHgap());
+        double startY = pieceNode.getTranslateY() + (from[0] - to[0]) * (cellSize + getVgap());
+        GridPane.setConstraints(pieceNode, to[1], to[0]);
+        pieceNode.setTranslateX(startX);
+        pieceNode.setTranslateY(startY);
+        slide(piece, -startX, -startY);
+    }
+
+    // Top-left cell and cell count of every piece
+    static Map<Character, int[]> findPiecePositions(char[][] grid) {
+        Map<Character, int[]> positions = new HashMap<>();
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid[row].length; col++) {
+                char piece = grid[row][col];
+                if (piece == '.' || piece == 'K') {
+                    continue;
+                }
+                int[] position = positions.get(piece);
+                if (position == null) {
+                    positions.put(piece, new int[] {row, col, 1});
+                } else {
+                    position[2]++;
+                }
+            }
+        }
+        return positions;
+    }
+
+    // Row and column of the K cell, or {-1, -1} if the board has none
+    static int[] findExit(char[][] grid) {
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid[row].length; col++) {
+                if (grid[row][col] == 'K') {
+                    Log.debug("Exit found in board at [" + row + "," + col + "]");
+                    return new int[] {row, col};
+                }
+            }
+        }
+        Log.debug("Exit not found in board matrix");
+        return new int[] {-1, -1};
+    }
+
+    // Whether newBoard has the size, exit and pieces of the board shown now, so that sliding
+    // pieces is enough to display it
+    static boolean sameLayout(char[][] newBoard, Map<Character, int[]> newPositions, int rows, int cols,
+                              int exitRow, int exitCol, Map<Character, int[]> piecePositions) {
+        if (newBoard.length != rows || newBoard[0].length != cols) {
+            return false;
+        }
+        if (exitRow >= 0 && exitCol >= 0 && newBoard[exitRow][exitCol] != 'K') {
+            return false;
+        }
+        if (!newPositions.keySet().equals(piecePositions.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Character, int[]> entry : newPositions.entrySet()) {
+            if (entry.getValue()[2] != piecePositions.get(entry.getKey())[2]) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
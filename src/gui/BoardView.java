@@ -0,0 +1,16 @@
+package gui;
+
+import javafx.scene.Node;
+
+// What the Renderer draws the puzzle on. BoardPane lays out one node per piece and cell;
+// CanvasBoardView paints everything on a single canvas and stays smooth on large boards.
+// Directions for movePiece are "up", "down", "left" and "right".
+public interface BoardView {
+    Node getNode();
+
+    void initializeBoard(char[][] board);
+
+    void updateBoard(char[][] board);
+
+    void movePiece(char piece, String direction, int steps);
+}
@@ -0,0 +1,333 @@
+package gui;
+
+import core.Log;
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Draws the board on a single Canvas instead of a node per cell and piece. Cells, the exit and
+// every piece are built once with BoardPane's node factories and the app stylesheet, then
+// snapshotted into sprites, so the canvas looks the same as BoardPane. A move only repaints the
+// rectangle a sliding piece covered last frame and covers now (the cells underneath, then every
+// piece that overlaps it), so the cost per frame depends on the moving pieces, not on board size.
+// Large boards get smaller cells so they still fit the window.
+public class CanvasBoardView extends Pane implements BoardView {
+    private static final double MAX_CELL_SIZE = 60;
+    private static final double MIN_CELL_SIZE = 24;
+    private static final double MAX_BOARD_EXTENT = 720;
+    private static final double GAP = 2;
+    private static final double PADDING = 15;
+    private static final double SLIDE_NANOS = 500_000_000.0;
+
+    private static class Sprite {
+        final Image image;
+        // Where the image starts relative to the cell or piece corner (negative for shadows)
+        final double offsetX;
+        final double offsetY;
+
+        Sprite(Image image, double offsetX, double offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+    }
+
+    private static class DrawnPiece {
+        final Sprite sprite;
+        double x;
+        double y;
+        double fromX;
+        double fromY;
+        double toX;
+        double toY;
+        long start = -1;
+
+        DrawnPiece(Sprite sprite, double x, double y) {
+            this.sprite = sprite;
+            this.x = x;
+            this.y = y;
+            this.toX = x;
+            this.toY = y;
+        }
+
+        double left() {
+            return x + sprite.offsetX;
+        }
+
+        double top() {
+            return y + sprite.offsetY;
+        }
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final GraphicsContext gc = canvas.getGraphicsContext2D();
+
+    private char[][] board;
+    private int rows;
+    private int cols;
+    private double cellSize = MAX_CELL_SIZE;
+    private int exitRow = -1;
+    private int exitCol = -1;
+
+    private Sprite cellSprite;
+    private Sprite exitSprite;
+    // Piece sprites by id and shape; rebuilt only when the cell size changes
+    private final Map<String, Sprite> spriteCache = new HashMap<>();
+    // Pieces in drawing order
+    private final List<DrawnPiece> pieces = new ArrayList<>();
+    private final Map<Character, DrawnPiece> pieceMap = new HashMap<>();
+    private Map<Character, int[]> piecePositions = new HashMap<>();
+    private final List<DrawnPiece> sliding = new ArrayList<>();
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            step(now);
+        }
+    };
+
+    public CanvasBoardView() {
+        this.getStyleClass().add("board-pane");
+        getChildren().add(canvas);
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void initializeBoard(char[][] board) {
+        timer.stop();
+        sliding.clear();
+        pieces.clear();
+        pieceMap.clear();
+
+        this.board = board;
+        this.rows = board.length;
+        this.cols = board[0].length;
+
+        double fitted = Math.floor(MAX_BOARD_EXTENT / Math.max(rows, cols)) - GAP;
+        double newCellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, fitted));
+        if (newCellSize != cellSize || cellSprite == null) {
+            cellSize = newCellSize;
+            spriteCache.clear();
+            cellSprite = snapshot(createCellNode());
+            exitSprite = snapshot(BoardPane.createExitNode(cellSize));
+        }
+
+        double width = 2 * PADDING + cols * cellSize + (cols - 1) * GAP;
+        double height = 2 * PADDING + rows * cellSize + (rows - 1) * GAP;
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+        setPrefSize(width, height);
+        setMaxSize(width, height);
+
+        int[] exit = BoardPane.findExit(board);
+        exitRow = exit[0];
+        exitCol = exit[1];
+        if (exitRow < 0) {
+            Log.error("WARNING: No exit door (K) found in the board!");
+        }
+
+        piecePositions = BoardPane.findPiecePositions(board);
+        for (Map.Entry<Character, int[]> entry : piecePositions.entrySet()) {
+            char piece = entry.getKey();
+            int[] position = entry.getValue();
+            boolean horizontal = position[1] + 1 < cols && board[position[0]][position[1] + 1] == piece;
+            int size = position[2];
+            DrawnPiece drawn = new DrawnPiece(pieceSprite(piece, horizontal ? size : 1, horizontal ? 1 : size),
+                    cellX(position[1]), cellY(position[0]));
+            pieces.add(drawn);
+            pieceMap.put(piece, drawn);
+        }
+
+        repaint(0, 0, width, height);
+    }
+
+    // Slides the pieces whose position changed; anything that is not a plain move falls back to
+    // building the board again, like BoardPane.updateBoard
+    @Override
+    public void updateBoard(char[][] newBoard) {
+        Map<Character, int[]> newPositions = BoardPane.findPiecePositions(newBoard);
+        if (board == null
+                || !BoardPane.sameLayout(newBoard, newPositions, rows, cols, exitRow, exitCol, piecePositions)) {
+            initializeBoard(newBoard);
+            return;
+        }
+
+        for (Map.Entry<Character, int[]> entry : newPositions.entrySet()) {
+            int[] from = piecePositions.get(entry.getKey());
+            int[] to = entry.getValue();
+            if (from[0] != to[0] || from[1] != to[1]) {
+                slide(pieceMap.get(entry.getKey()), cellX(to[1]), cellY(to[0]));
+            }
+        }
+        this.board = newBoard;
+        this.piecePositions = newPositions;
+    }
+
+    @Override
+    public void movePiece(char piece, String direction, int steps) {
+        DrawnPiece drawn = pieceMap.get(piece);
+        if (drawn == null) return;
+
+        double pitch = cellSize + GAP;
+        switch (direction) {
+            case "up":
+                slide(drawn, drawn.toX, drawn.toY - pitch * steps);
+                break;
+            case "down":
+                slide(drawn, drawn.toX, drawn.toY + pitch * steps);
+                break;
+            case "left":
+                slide(drawn, drawn.toX - pitch * steps, drawn.toY);
+                break;
+            case "right":
+                slide(drawn, drawn.toX + pitch * steps, drawn.toY);
+                break;
+        }
+    }
+
+    // A newer slide takes over from wherever the piece is drawn right now
+    private void slide(DrawnPiece drawn, double toX, double toY) {
+        drawn.fromX = drawn.x;
+        drawn.fromY = drawn.y;
+        drawn.toX = toX;
+        drawn.toY = toY;
+        drawn.start = -1;
+        if (!sliding.contains(drawn)) {
+            sliding.add(drawn);
+        }
+        timer.start();
+    }
+
+    private void step(long now) {
+        Iterator<DrawnPiece> iterator = sliding.iterator();
+        while (iterator.hasNext()) {
+            DrawnPiece drawn = iterator.next();
+            if (drawn.start < 0) {
+                drawn.start = now;
+            }
+            double t = Math.min(1.0, (now - drawn.start) / SLIDE_NANOS);
+            double eased = Interpolator.EASE_BOTH.interpolate(0.0, 1.0, t);
+
+            double oldLeft = drawn.left();
+            double oldTop = drawn.top();
+            drawn.x = drawn.fromX + (drawn.toX - drawn.fromX) * eased;
+            drawn.y = drawn.fromY + (drawn.toY - drawn.fromY) * eased;
+
+            double w = drawn.sprite.image.getWidth();
+            double h = drawn.sprite.image.getHeight();
+            double left = Math.min(oldLeft, drawn.left());
+            double top = Math.min(oldTop, drawn.top());
+            repaint(left, top, Math.max(oldLeft, drawn.left()) + w - left, Math.max(oldTop, drawn.top()) + h - top);
+
+            if (t >= 1.0) {
+                iterator.remove();
+            }
+        }
+        if (sliding.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    // Clears the rectangle and draws back the cells and pieces that overlap it, clipped to it
+    private void repaint(double x, double y, double w, double h) {
+        double left = Math.floor(x);
+        double top = Math.floor(y);
+        double right = Math.ceil(x + w);
+        double bottom = Math.ceil(y + h);
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(left, top, right - left, bottom - top);
+        gc.clip();
+        gc.clearRect(left, top, right - left, bottom - top);
+
+        double pitch = cellSize + GAP;
+        int firstCol = Math.max(0, (int) Math.floor((left - PADDING) / pitch) - 1);
+        int lastCol = Math.min(cols - 1, (int) Math.ceil((right - PADDING) / pitch));
+        int firstRow = Math.max(0, (int) Math.floor((top - PADDING) / pitch) - 1);
+        int lastRow = Math.min(rows - 1, (int) Math.ceil((bottom - PADDING) / pitch));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                Sprite sprite = row == exitRow && col == exitCol ? exitSprite : cellSprite;
+                gc.drawImage(sprite.image, cellX(col) + sprite.offsetX, cellY(row) + sprite.offsetY);
+            }
+        }
+
+        for (DrawnPiece drawn : pieces) {
+            Image image = drawn.sprite.image;
+            if (drawn.left() < right && drawn.left() + image.getWidth() > left
+                    && drawn.top() < bottom && drawn.top() + image.getHeight() > top) {
+                gc.drawImage(image, drawn.left(), drawn.top());
+            }
+        }
+        gc.restore();
+    }
+
+    private Sprite pieceSprite(char piece, int widthCells, int heightCells) {
+        String key = piece + ":" + widthCells + "x" + heightCells;
+        Sprite sprite = spriteCache.get(key);
+        if (sprite == null) {
+            double width = widthCells * cellSize + (widthCells - 1) * GAP;
+            double height = heightCells * cellSize + (heightCells - 1) * GAP;
+            sprite = snapshot(BoardPane.createPieceNode(piece, width, height));
+            spriteCache.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    // Empty cells always show their dot; pieces are drawn over it
+    private StackPane createCellNode() {
+        Text dot = new Text(".");
+        dot.setFill(Color.LIGHTGRAY);
+        dot.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        return new StackPane(BoardPane.createCell(cellSize), dot);
+    }
+
+    // Renders the node in a throwaway scene with the app stylesheet so it is styled exactly as
+    // it would be inside BoardPane
+    private Sprite snapshot(Node node) {
+        Group root = new Group(node);
+        root.getStyleClass().add("board-pane");
+        Scene scene = new Scene(root);
+        scene.getStylesheets().add(getClass().getResource("style.css").toExternalForm());
+        root.applyCss();
+        root.layout();
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        Image image = node.snapshot(parameters, null);
+        Bounds bounds = node.getBoundsInParent();
+        return new Sprite(image, bounds.getMinX(), bounds.getMinY());
+    }
+
+    private double cellX(int col) {
+        return PADDING + col * (cellSize + GAP);
+    }
+
+    private double cellY(int row) {
+        return PADDING + row * (cellSize + GAP);
+    }
+}
@@ -1,13 +1,23 @@
 package gui;
 
+import algorithm.SearchLimits;
+import algorithm.SearchMonitor;
+import algorithm.SearchResult;
+import algorithm.SearchStatus;
+import algorithm.SearchTrace;
+import core.Log;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import java.io.File;
 
 public class ControlPanel extends VBox {
@@ -16,14 +26,20 @@ public class ControlPanel extends VBox {
     private ComboBox<String> heuristicChoiceBox;
     private Button loadFileButton;
     private Button solveButton;
+    private Button cancelButton;
     private Button nextMoveButton;
     private Button prevMoveButton;
     private Button playAnimationButton;
-    private FlowPane stateButtonsPane;  
+    private ListView<Integer> stateListView;
+    private boolean syncingStateList;
     private Label statsLabel;
     private Renderer renderer;
     private Button saveSolutionButton;
     private SaveSolutionHandler saveSolutionHandler;
+    private SearchMonitor activeMonitor;
+    private Timeline progressTimeline;
+    private CheckBox traceCheckBox;
+    private SearchTraceWindow traceWindow;
     
     public ControlPanel(Renderer renderer) {
         this.renderer = renderer;
@@ -35,7 +51,7 @@ public class ControlPanel extends VBox {
 
         saveSolutionHandler = new SaveSolutionHandler(renderer);
         
-        renderer.addStepChangeListener(this::updateStateButtonsFromIndex);
+        renderer.addStepChangeListener(this::selectStateInList);
         
         setupControls();
     }
@@ -59,7 +75,8 @@ public class ControlPanel extends VBox {
         
         algorithmChoiceBox = new ComboBox<>();
         // Perbarui daftar algoritma yang tersedia dengan tampilan formal
-        algorithmChoiceBox.getItems().addAll("A*", "Dijkstra", "Greedy Best-First Search", "Uniform Cost Search");
+        algorithmChoiceBox.getItems().addAll("A*", "Anytime A*", "Dijkstra", "Greedy Best-First Search", "Uniform Cost Search",
+                                        "Portfolio (First Answer)", "Portfolio (Best Answer)");
         algorithmChoiceBox.setValue("A*");  // Default tampilan formal
         algorithmChoiceBox.setMaxWidth(Double.MAX_VALUE);
         algorithmChoiceBox.getStyleClass().add("control-combo-box");
@@ -77,7 +94,8 @@ public class ControlPanel extends VBox {
         // Aktifkan/nonaktifkan heuristic berdasarkan algoritma yang dipilih
         algorithmChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> {
             boolean needsHeuristic = !getInternalName(newVal).equals("ucs") && 
-                                    !getInternalName(newVal).equals("dijkstra");
+                                    !getInternalName(newVal).equals("dijkstra") &&
+                                    !getInternalName(newVal).startsWith("portfolio");
             
             if (!needsHeuristic) {
                 // Jika algoritma tidak memerlukan heuristik, set ke None dan disable
@@ -100,12 +118,22 @@ public class ControlPanel extends VBox {
             new javafx.event.ActionEvent(algorithmChoiceBox, null)
         );
         
+        traceCheckBox = new CheckBox("Show Search Explorer");
+        traceCheckBox.getStyleClass().add("control-label");
+        
         solveButton = new Button("Solve Puzzle");
         solveButton.getStyleClass().add("start-button");
         solveButton.setId("solveButton");
         solveButton.setMaxWidth(Double.MAX_VALUE);
         solveButton.setOnAction(e -> solvePuzzle());
         
+        cancelButton = new Button("Cancel Solving");
+        cancelButton.getStyleClass().add("start-button");
+        cancelButton.setId("cancelButton");
+        cancelButton.setMaxWidth(Double.MAX_VALUE);
+        cancelButton.setOnAction(e -> cancelSolving());
+        cancelButton.setDisable(true);
+        
         prevMoveButton = new Button("← Previous");
         prevMoveButton.getStyleClass().add("nav-button");
         prevMoveButton.setId("prevMoveButton");
@@ -133,20 +161,25 @@ public class ControlPanel extends VBox {
         Label statesLabel = new Label("Board States:");
         statesLabel.getStyleClass().add("control-label");
         
-        stateButtonsPane = new FlowPane();
-        stateButtonsPane.setHgap(5);
-        stateButtonsPane.setVgap(5);
-        stateButtonsPane.setPrefWrapLength(200); 
-        stateButtonsPane.setAlignment(Pos.CENTER_LEFT);
-        stateButtonsPane.getStyleClass().add("state-buttons-pane");
-        
-        ScrollPane stateScrollPane = new ScrollPane(stateButtonsPane);
-        stateScrollPane.setFitToWidth(true);
-        stateScrollPane.setMaxHeight(200); 
-        stateScrollPane.getStyleClass().add("state-scroll-pane");
-        stateScrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        // Only the visible rows get cells, so long solutions cost one Integer per step
+        stateListView = new ListView<>();
+        stateListView.setFixedCellSize(28);
+        stateListView.setMaxHeight(200);
+        stateListView.getStyleClass().add("state-list");
+        stateListView.setCellFactory(list -> new ListCell<Integer>() {
+            @Override
+            protected void updateItem(Integer stepIndex, boolean empty) {
+                super.updateItem(stepIndex, empty);
+                setText(empty || stepIndex == null ? null : "S" + stepIndex + "   " + renderer.describeStep(stepIndex));
+            }
+        });
+        stateListView.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) -> {
+            if (!syncingStateList && newVal.intValue() >= 0) {
+                renderer.jumpToStep(newVal.intValue());
+            }
+        });
         
-        VBox.setVgrow(stateScrollPane, Priority.ALWAYS);
+        VBox.setVgrow(stateListView, Priority.ALWAYS);
         
         Separator separator1 = new Separator();
         separator1.getStyleClass().add("control-separator");
@@ -161,7 +194,9 @@ public class ControlPanel extends VBox {
             loadFileButton,
             algoLabel, algorithmChoiceBox,
             heuristicLabel, heuristicChoiceBox,
+            traceCheckBox,
             solveButton,
+            cancelButton,
             separator1,
             navigationBox,
             playAnimationButton,
@@ -170,7 +205,7 @@ public class ControlPanel extends VBox {
             statsLabel, 
             separator3,
             statesLabel,
-            stateScrollPane 
+            stateListView
         );
         
         solveButton.setDisable(true);
@@ -182,8 +217,11 @@ public class ControlPanel extends VBox {
     private void saveSolution() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("Save Solution");
-        fileChooser.getExtensionFilters().add(
-            new FileChooser.ExtensionFilter("Text Files", "*.txt")
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Text Files", "*.txt"),
+            new FileChooser.ExtensionFilter("Move List", "*.moves"),
+            new FileChooser.ExtensionFilter("JSON Lines", "*.json"),
+            new FileChooser.ExtensionFilter("Binary Moves", "*.rhs")
         );
         
         String initialFileName = "rushhour_solution_" + 
@@ -209,6 +247,7 @@ public class ControlPanel extends VBox {
         if (selectedFile != null) {
             renderer.loadPuzzleFromFile(selectedFile);
             solveButton.setDisable(false);
+            stateListView.getItems().clear();
             
             saveSolutionHandler.setFileLoaded(true);
             
@@ -225,100 +264,169 @@ public class ControlPanel extends VBox {
         
         if ("none".equals(heuristic) || 
             "dijkstra".equals(algorithm) || 
-            "ucs".equals(algorithm)) {
+            "ucs".equals(algorithm) ||
+            algorithm.startsWith("portfolio")) {
             heuristic = null;
         }
         
-        System.out.println("Solving puzzle with algorithm: " + algorithm + 
-                        ", heuristic: " + (heuristic != null ? heuristic : "N/A"));
-        
         solveButton.setDisable(true);
+        loadFileButton.setDisable(true);
+        cancelButton.setDisable(false);
         
         statsLabel.setText("Solving puzzle...");
-        try {
-            boolean solved = renderer.solvePuzzle(algorithm, heuristic);
-            
-            if (solved) {
-                prevMoveButton.setDisable(false);
-                nextMoveButton.setDisable(false);
-                playAnimationButton.setDisable(false);
-                
-                saveSolutionHandler.setPuzzleSolved(true);
-                
-                updateStats(
-                    renderer.getTotalMoves(),
-                    renderer.getNodesVisited(),
-                    renderer.getExecutionTime()
-                );
-                
-                createStateButtons();
-                
-                javafx.application.Platform.runLater(() -> {
-                    new javafx.animation.Timeline(
-                        new javafx.animation.KeyFrame(
-                            javafx.util.Duration.millis(300),
-                            event -> renderer.playAnimation()
-                        )
-                    ).play();
-                });
-            } else {
-                solveButton.setDisable(false);
-                
-                saveSolutionHandler.setPuzzleSolved(false);
-                
-                renderer.showErrorDialog("Solving Result", "No solution found for " + 
-                                    algorithmFormal + 
-                                    (heuristic != null ? " with " + heuristicFormal : ""));
+        
+        // Solver berjalan di background thread agar UI tetap responsif
+        SearchMonitor monitor = new SearchMonitor();
+        SearchLimits limits = SearchLimits.none().withMonitor(monitor);
+        // Taken here on the JavaFX thread; the worker only ever sees this copy
+        char[][] boardSnapshot = renderer.getBoardSnapshot();
+        if (traceCheckBox.isSelected() && boardSnapshot != null) {
+            // Sampling one expansion in 16 keeps the trace's cost to the solver negligible
+            SearchTrace trace = new SearchTrace(4096, 16);
+            limits = limits.withTrace(trace);
+            traceWindow = new SearchTraceWindow(trace, boardSnapshot);
+            traceWindow.show();
+        }
+        SearchLimits searchLimits = limits;
+        String selectedHeuristic = heuristic;
+        
+        Task<SearchResult> solveTask = new Task<SearchResult>() {
+            @Override
+            protected SearchResult call() throws Exception {
+                return renderer.computeSolution(boardSnapshot, algorithm, selectedHeuristic, searchLimits);
             }
-        } catch (Exception e) {
-            solveButton.setDisable(false);
+        };
+        
+        progressTimeline = new Timeline(
+            new KeyFrame(Duration.millis(250), e -> updateProgress(monitor))
+        );
+        progressTimeline.setCycleCount(Animation.INDEFINITE);
+        
+        solveTask.setOnSucceeded(e -> {
+            finishSolving();
+            handleSolveResult(solveTask.getValue(), algorithmFormal, heuristicFormal, selectedHeuristic);
+        });
+        
+        solveTask.setOnFailed(e -> {
+            finishSolving();
+            Throwable error = solveTask.getException();
             
+            solveButton.setDisable(false);
             saveSolutionHandler.setPuzzleSolved(false);
+            statsLabel.setText("Stats: N/A");
             
-            renderer.showErrorDialog("Error", "An error occurred: " + e.getMessage());
+            renderer.showErrorDialog("Error", "An error occurred: " + error.getMessage());
             
-            System.err.println("Error during puzzle solving: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error during puzzle solving: " + error.getMessage(), error);
+        });
+        
+        activeMonitor = monitor;
+        progressTimeline.play();
+        
+        Thread worker = new Thread(solveTask, "rush-hour-solver");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    private void cancelSolving() {
+        if (activeMonitor != null) {
+            activeMonitor.cancel();
+            cancelButton.setDisable(true);
+            statsLabel.setText("Cancelling...");
         }
     }
-
-    private void createStateButtons() {
-        stateButtonsPane.getChildren().clear();
-        
-        int totalStates = renderer.getTotalSteps();
+    
+    private void finishSolving() {
+        if (progressTimeline != null) {
+            progressTimeline.stop();
+        }
+        activeMonitor = null;
+        if (traceWindow != null) {
+            traceWindow.finish();
+            traceWindow = null;
+        }
+        cancelButton.setDisable(true);
+        loadFileButton.setDisable(false);
+    }
+    
+    private void updateProgress(SearchMonitor monitor) {
+        if (monitor.isCancelled()) return;
         
-        for (int i = 0; i < totalStates; i++) {
-            Button stateButton = new Button("S" + i);
-            stateButton.getStyleClass().add("state-button");
-            stateButton.setPrefSize(35, 25);
-            
-            if (i == 0) {
-                stateButton.getStyleClass().add("active-state-button");
-            }
-            
-            int stateIndex = i;
-            stateButton.setOnAction(e -> {
-                renderer.jumpToStep(stateIndex);
-            });
-            
-            stateButtonsPane.getChildren().add(stateButton);
+        StringBuilder text = new StringBuilder(String.format(
+            "Solving puzzle...\nNodes Expanded: %d\nCurrent f-bound: %.1f\nElapsed Time: %d ms",
+            monitor.getNodesExpanded(), monitor.getFBound(), monitor.getElapsedMillis()
+        ));
+        if (monitor.getBestSolutionMoves() >= 0) {
+            text.append("\nBest So Far: ").append(monitor.getBestSolutionMoves()).append(" moves");
         }
+        statsLabel.setText(text.toString());
     }
     
-    private void updateStateButtonsFromIndex(int activeIndex) {
-        if (stateButtonsPane.getChildren().isEmpty()) return;
-        
-        for (int i = 0; i < stateButtonsPane.getChildren().size(); i++) {
-            Button btn = (Button) stateButtonsPane.getChildren().get(i);
-            if (i == activeIndex) {
-                if (!btn.getStyleClass().contains("active-state-button")) {
-                    btn.getStyleClass().add("active-state-button");
-                }
+    private void handleSolveResult(SearchResult result, String algorithmFormal, String heuristicFormal,
+                                   String heuristic) {
+        if (result.isSolved()) {
+            renderer.applySolution(result.getSolution());
+            
+            prevMoveButton.setDisable(false);
+            nextMoveButton.setDisable(false);
+            playAnimationButton.setDisable(false);
+            
+            saveSolutionHandler.setPuzzleSolved(true);
+            
+            updateStats(
+                renderer.getTotalMoves(),
+                renderer.getNodesVisited(),
+                renderer.getExecutionTime()
+            );
+            
+            fillStateList();
+            
+            new Timeline(
+                new KeyFrame(
+                    Duration.millis(300),
+                    event -> renderer.playAnimation()
+                )
+            ).play();
+        } else {
+            solveButton.setDisable(false);
+            
+            saveSolutionHandler.setPuzzleSolved(false);
+            
+            if (result.getStatus() == SearchStatus.CANCELLED) {
+                statsLabel.setText(String.format(
+                    "Solving cancelled\nNodes Visited: %d\nExecution Time: %d ms",
+                    result.getNodesVisited(), (long) result.getExecutionTime()
+                ));
             } else {
-                btn.getStyleClass().remove("active-state-button");
+                statsLabel.setText("Stats: N/A");
+                renderer.showErrorDialog("Solving Result", "No solution found for " + 
+                                    algorithmFormal + 
+                                    (heuristic != null ? " with " + heuristicFormal : ""));
             }
         }
     }
+
+    private void fillStateList() {
+        int totalStates = renderer.getTotalSteps();
+        Integer[] steps = new Integer[totalStates];
+        for (int i = 0; i < totalStates; i++) {
+            steps[i] = i;
+        }
+        syncingStateList = true;
+        stateListView.getItems().setAll(steps);
+        stateListView.getSelectionModel().select(0);
+        stateListView.scrollTo(0);
+        syncingStateList = false;
+    }
+    
+    private void selectStateInList(int activeIndex) {
+        if (activeIndex < 0 || activeIndex >= stateListView.getItems().size()) return;
+        
+        syncingStateList = true;
+        stateListView.getSelectionModel().select(activeIndex);
+        stateListView.scrollTo(Math.max(0, activeIndex - 2));
+        syncingStateList = false;
+    }
     
     public void updateStats(int moves, int nodes, long executionTime) {
         statsLabel.setText(String.format(
@@ -330,9 +438,12 @@ public class ControlPanel extends VBox {
     private String getInternalName(String displayName) {
         switch(displayName) {
             case "A*": return "astar";
+            case "Anytime A*": return "anytime";
             case "Dijkstra": return "dijkstra";
             case "Greedy Best-First Search": return "gbfs";
             case "Uniform Cost Search": return "ucs";
+            case "Portfolio (First Answer)": return "portfolio";
+            case "Portfolio (Best Answer)": return "portfolio-best";
             case "Manhattan Distance": return "manhattan";
             case "Blocking Heuristic": return "blocking";
             case "Combined Heuristic": return "combined";
@@ -4,22 +4,35 @@ import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import algorithm.AStar;
+import algorithm.AnytimeAStar;
 import algorithm.Dijkstra;
 import algorithm.GBFS;
+import algorithm.PortfolioSolver;
+import algorithm.PortfolioStats;
+import algorithm.SearchLimits;
+import algorithm.SearchResult;
+import algorithm.Solver;
 import algorithm.UCS;
 import core.Board;
 import core.GameState;
+import core.Log;
 import core.Move;
+import core.SolutionWriter;
 
 public class Renderer {
     
@@ -33,25 +46,51 @@ public class Renderer {
         stepChangeListeners.add(listener);
     }
     
-    private BoardPane boardPane;
+    private BoardView boardView;
     private char[][] currentBoard;
     private List<MoveStep> solutionSteps;
+    private Board solvedBoard;
+    private List<Move> solutionMoves = new ArrayList<>();
     private int currentStepIndex = -1;
+    
+    // Step boards are rebuilt on demand from the first board, a checkpoint every
+    // CHECKPOINT_INTERVAL moves, and the last board built (so playback applies one move per step)
+    private static final int CHECKPOINT_INTERVAL = 32;
+    private char[][] firstStepBoard;
+    private List<char[][]> checkpoints = new ArrayList<>();
+    private Map<Character, int[]> pieceLanes = new HashMap<>();
+    private char[][] lastBuiltBoard;
+    private int lastBuiltIndex = -1;
     private Timeline animation;
 
     private String lastUsedAlgorithm = null;
     private String lastUsedHeuristic = null;
     
+    private PortfolioStats portfolioStats = new PortfolioStats();
+    
     private int totalMoves = 0;
     private int nodesVisited = 0;
     private long executionTime = 0;
     
-    public Renderer(BoardPane boardPane) {
-        this.boardPane = boardPane;
+    public Renderer(BoardView boardView) {
+        this.boardView = boardView;
         this.solutionSteps = new ArrayList<>();
         setupAnimation();
     }
     
+    // Switches to another view and shows it the board at the current step
+    public void setBoardView(BoardView boardView) {
+        this.boardView = boardView;
+        if (currentBoard == null) {
+            return;
+        }
+        if (currentStepIndex >= 0 && currentStepIndex < solutionSteps.size()) {
+            boardView.initializeBoard(boardAt(currentStepIndex));
+        } else {
+            boardView.initializeBoard(currentBoard);
+        }
+    }
+    
     private void setupAnimation() {
         animation = new Timeline(
             new KeyFrame(Duration.millis(1000), e -> showNextMove())
@@ -78,7 +117,7 @@ public class Renderer {
             int rows = Integer.parseInt(dimensions[0]);
             int cols = Integer.parseInt(dimensions[1]);
             
-            System.out.println("Loading board with dimensions: " + rows + "x" + cols);
+            Log.debug("Loading board with dimensions: " + rows + "x" + cols);
             
             String secondLine = reader.readLine();
             boolean isNumericLine = true;
@@ -109,7 +148,7 @@ public class Renderer {
                 if (boardLines.isEmpty() && (trimmed.equals("K") || (trimmed.length() > 1 && trimmed.replace("K", "").trim().isEmpty()))) {
                     hasTopK = true;
                     exitCol = line.indexOf('K');
-                    System.out.println("K found in top row at col: " + exitCol);
+                    Log.debug("K found in top row at col: " + exitCol);
                     continue;
                 }
                 boardLines.add(line);
@@ -130,7 +169,7 @@ public class Renderer {
             if (minLeadingSpace == Integer.MAX_VALUE) minLeadingSpace = 0;
             leftPadding = minLeadingSpace;
             
-            System.out.println("Minimum leading spaces: " + leftPadding);
+            Log.debug("Minimum leading spaces: " + leftPadding);
             
             boolean foundPrimaryPiece = false;
             boolean isHorizontal = false;
@@ -162,7 +201,7 @@ public class Renderer {
                     exitRow = 0;
                     exitCol = firstLine.indexOf('K') - leftPadding;
                     hasTopK = true;
-                    System.out.println("K found in first row at col " + exitCol);
+                    Log.debug("K found in first row at col " + exitCol);
                 }
             }
             
@@ -177,10 +216,10 @@ public class Renderer {
                         if (kPos - leftPadding <= 0) {
                             exitCol = 0;
                             hasLeftK = true;
-                            System.out.println("K found at start of row " + i + " with left padding " + leftPadding);
+                            Log.debug("K found at start of row " + i + " with left padding " + leftPadding);
                         } else {
                             exitCol = kPos - leftPadding;
-                            System.out.println("K found in row " + i + " at col " + exitCol);
+                            Log.debug("K found in row " + i + " at col " + exitCol);
                         }
                         break;
                     }
@@ -201,7 +240,7 @@ public class Renderer {
                             exitCol = 0;
                         }
                         
-                        System.out.println("K found in board at row " + i + ", col " + exitCol);
+                        Log.debug("K found in board at row " + i + ", col " + exitCol);
                         break;
                     }
                 }
@@ -223,7 +262,7 @@ public class Renderer {
                             if (exitCol < 0) exitCol = 0;
                         }
                         
-                        System.out.println("Found K in line " + i + " (after board rows) at position [" + exitRow + "," + exitCol + "]");
+                        Log.debug("Found K in line " + i + " (after board rows) at position [" + exitRow + "," + exitCol + "]");
                         break;
                     }
                     
@@ -234,7 +273,7 @@ public class Renderer {
                         exitCol = kIndex - leftPadding;
                         if (exitCol < 0) exitCol = 0;
                         
-                        System.out.println("Found K character in line after board at col " + exitCol);
+                        Log.debug("Found K character in line after board at col " + exitCol);
                         break;
                     }
                 }
@@ -249,7 +288,7 @@ public class Renderer {
                             exitExists = true;
                             exitRow = i;
                             exitCol = cols;
-                            System.out.println("K found at end of row " + i + " after board width");
+                            Log.debug("K found at end of row " + i + " after board width");
                             break;
                         }
                     }
@@ -290,12 +329,12 @@ public class Renderer {
                 }
             }
             
-            System.out.println("Primary piece found at [" + pRow + "," + pCol + "], Orientation: " + 
+            Log.debug("Primary piece found at [" + pRow + "," + pCol + "], Orientation: " + 
                             (isHorizontal ? "Horizontal" : "Vertical"));
             
             if (exitExists) {
-                System.out.println("Exit found at [" + exitRow + "," + exitCol + "]");
-                System.out.println("hasLeftK: " + hasLeftK + ", hasTopK: " + hasTopK);
+                Log.debug("Exit found at [" + exitRow + "," + exitCol + "]");
+                Log.debug("hasLeftK: " + hasLeftK + ", hasTopK: " + hasTopK);
                 
                 boolean validOrientation = false;
                 if (isHorizontal) {
@@ -316,7 +355,7 @@ public class Renderer {
                     );
                 }
             } else {
-                System.out.println("Warning: Exit exists but not detected in parsing stage.");
+                Log.debug("Warning: Exit exists but not detected in parsing stage.");
             }
             
             int finalRows = rows;
@@ -324,17 +363,17 @@ public class Renderer {
 
             if (exitExists && exitRow >= rows) {
                 finalRows = exitRow + 1;
-                System.out.println("Expanding rows for bottom exit: Final rows = " + finalRows);
+                Log.debug("Expanding rows for bottom exit: Final rows = " + finalRows);
             }
 
             if (exitExists && exitCol >= cols) {
                 finalCols = exitCol + 1;
-                System.out.println("Expanding cols for right exit: Final cols = " + finalCols);
+                Log.debug("Expanding cols for right exit: Final cols = " + finalCols);
             }
 
             if (hasLeftK) {
                 finalCols += 1;
-                System.out.println("Adding column for left K: Final cols = " + finalCols);
+                Log.debug("Adding column for left K: Final cols = " + finalCols);
             }
 
             if (!exitExists && foundPrimaryPiece) {
@@ -343,13 +382,13 @@ public class Renderer {
                     exitCol = cols;
                     finalCols += 1;
                     exitExists = true;
-                    System.out.println("Added automatic exit for horizontal at [" + exitRow + "," + exitCol + "]");
+                    Log.debug("Added automatic exit for horizontal at [" + exitRow + "," + exitCol + "]");
                 } else {
                     exitRow = rows;
                     exitCol = pCol;
                     finalRows += 1;
                     exitExists = true;
-                    System.out.println("Added automatic exit for vertical at [" + exitRow + "," + exitCol + "]");
+                    Log.debug("Added automatic exit for vertical at [" + exitRow + "," + exitCol + "]");
                 }
             }
 
@@ -365,7 +404,7 @@ public class Renderer {
                 int adjustedExitCol = exitCol;
                 if (hasLeftK) adjustedExitCol += 1; 
                 currentBoard[0][adjustedExitCol] = 'K';
-                System.out.println("Placed K at top row [0," + adjustedExitCol + "]");
+                Log.debug("Placed K at top row [0," + adjustedExitCol + "]");
                 
                 for (int i = 0; i < Math.min(rows, boardLines.size()); i++) {
                     String currentLine = boardLines.get(i);
@@ -412,7 +451,7 @@ public class Renderer {
                 if (exitExists) {
                     if (hasLeftK) {
                         currentBoard[exitRow][0] = 'K';
-                        System.out.println("Placed K at left [" + exitRow + ",0]");
+                        Log.debug("Placed K at left [" + exitRow + ",0]");
                     }
                     
                     if (exitRow >= rows) {
@@ -425,7 +464,7 @@ public class Renderer {
                         
                         if (exitRow >= 0 && exitRow < finalRows && adjustedExitCol >= 0 && adjustedExitCol < finalCols) {
                             currentBoard[exitRow][adjustedExitCol] = 'K';
-                            System.out.println("Placed K at bottom [" + exitRow + "," + adjustedExitCol + "]");
+                            Log.debug("Placed K at bottom [" + exitRow + "," + adjustedExitCol + "]");
                         }
                     }
                     
@@ -434,7 +473,7 @@ public class Renderer {
                         
                         if (exitRow >= 0 && exitRow < finalRows) {
                             currentBoard[exitRow][adjustedExitCol] = 'K';
-                            System.out.println("Placed K at right [" + exitRow + "," + adjustedExitCol + "]");
+                            Log.debug("Placed K at right [" + exitRow + "," + adjustedExitCol + "]");
                         }
                     }
                 }
@@ -486,44 +525,44 @@ public class Renderer {
                 );
             }
 
-            System.out.println("Final board contents (" + finalRows + "x" + finalCols + "):");
-            for (int i = 0; i < currentBoard.length; i++) {
-                System.out.println(new String(currentBoard[i]));
+            if (Log.isDebug()) {
+                Log.debug("Final board contents (" + finalRows + "x" + finalCols + "):");
+                for (int i = 0; i < currentBoard.length; i++) {
+                    Log.debug(new String(currentBoard[i]));
+                }
             }
                         
-            boardPane.updateBoard(currentBoard);
+            boardView.initializeBoard(currentBoard);
             
             solutionSteps.clear();
             currentStepIndex = -1;
             
-            solutionSteps.add(new MoveStep(copyBoard(currentBoard), null, null, 0));
+            resetStepBoards(currentBoard);
+            solutionSteps.add(new MoveStep(null, null, 0));
             
-            System.out.println("File berhasil dimuat. Board " + finalRows + "x" + finalCols);
+            Log.info("File berhasil dimuat. Board " + finalRows + "x" + finalCols);
             
         } catch (IOException e) {
-            System.err.println("Error loading puzzle file: " + e.getMessage());
-            e.printStackTrace();
+            Log.error("Error loading puzzle file: " + e.getMessage(), e);
         } catch (IllegalArgumentException e) {
-            System.err.println(e.getMessage());
+            Log.error(e.getMessage(), e);
             showErrorDialog("Puzzle Error", e.getMessage());
-            e.printStackTrace();
         } catch (Exception e) {
-            System.err.println("Error loading puzzle file: " + e.getMessage());
+            Log.error("Error loading puzzle file: " + e.getMessage(), e);
             showErrorDialog("Puzzle Error", "Unexpected error: " + e.getMessage());
-            e.printStackTrace();
         } finally {
             if (reader != null) {
                 try {
                     reader.close();
                 } catch (IOException e) {
-                    System.err.println("Error closing reader: " + e.getMessage());
+                    Log.error("Error closing reader: " + e.getMessage());
                 }
             }
         }
     }
 
     public void showErrorDialog(String title, String message) {
-        System.err.println("[ERROR DIALOG] " + title + ": " + message);
+        Log.error("[ERROR DIALOG] " + title + ": " + message);
         
         javafx.application.Platform.runLater(() -> {
             javafx.stage.Stage dialogStage = new javafx.stage.Stage();
@@ -617,7 +656,7 @@ public class Renderer {
     }
 
     public void showSuccessDialog(String title, String message) {
-        System.out.println("[SUCCESS DIALOG] " + title + ": " + message);
+        Log.info("[SUCCESS DIALOG] " + title + ": " + message);
         
         javafx.application.Platform.runLater(() -> {
             javafx.stage.Stage dialogStage = new javafx.stage.Stage();
@@ -711,106 +750,111 @@ public class Renderer {
     }
 
     public boolean solvePuzzle(String algorithm, String heuristic) {
-        System.out.println("Start solving puzzle with algorithm: " + algorithm + 
-                        ", heuristic: " + (heuristic != null ? heuristic : "N/A"));
-        lastUsedAlgorithm = algorithm;
-        lastUsedHeuristic = heuristic;
         try {
-            debugBoard(currentBoard);
-            
-            File tempFile = File.createTempFile("rushHourBoard", ".txt");
-            tempFile.deleteOnExit();
-            
-            try (FileWriter writer = new FileWriter(tempFile)) {
-                writer.write(currentBoard.length + " " + currentBoard[0].length + "\n");
-                
-                int numNonPrimaryPieces = countNonPrimaryPieces();
-                writer.write(numNonPrimaryPieces + "\n");
-                
-                for (int i = 0; i < currentBoard.length; i++) {
-                    writer.write(new String(currentBoard[i]) + "\n");
-                }
-                
-                writer.write(algorithm + "\n");
-                if (!"dijkstra".equals(algorithm.toLowerCase()) && 
-                    !"ucs".equals(algorithm.toLowerCase()) && 
-                    heuristic != null) {
-                    writer.write(heuristic + "\n");
-                }
+            SearchResult result = computeSolution(getBoardSnapshot(), algorithm, heuristic, SearchLimits.none());
+            if (result.isSolved()) {
+                applySolution(result.getSolution());
+                return true;
             }
-            
-            System.out.println("Temporary file created: " + tempFile.getAbsolutePath());
-            
-            debugReadFile(tempFile);
-            
-            Board coreBoard = new Board(tempFile.getAbsolutePath());
-            System.out.println("Core board loaded");
-            
+            return false;
+        } catch (Exception e) {
+            Log.error("Error solving puzzle: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // Runs the search only and never touches the scene graph or the loaded board, so it can be
+    // called from a background thread. Take the board with getBoardSnapshot on the JavaFX thread
+    // first, and pass the result to applySolution there afterwards.
+    public SearchResult computeSolution(char[][] boardSnapshot, String algorithm, String heuristic,
+                                        SearchLimits limits) {
+        if (Log.isInfo()) {
+            Log.info("Start solving puzzle with algorithm: " + algorithm +
+                    ", heuristic: " + (heuristic != null ? heuristic : "N/A"));
+        }
+        lastUsedAlgorithm = algorithm;
+        lastUsedHeuristic = heuristic;
+        if (Log.isDebug()) {
+            debugBoard(boardSnapshot);
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(boardSnapshot.length).append(' ').append(boardSnapshot[0].length).append('\n');
+        text.append(countNonPrimaryPieces(boardSnapshot)).append('\n');
+        for (char[] row : boardSnapshot) {
+            text.append(row).append('\n');
+        }
+
+        Board coreBoard = Board.parse(text.toString());
+        solvedBoard = coreBoard;
+        if (Log.isDebug()) {
+            Log.debug("Core board loaded");
             coreBoard.printBoard(null);
-            
-            GameState solution = null;
-            String algorithmLower = algorithm.toLowerCase().trim();
-            
-            System.out.println("Running algorithm: " + algorithmLower);
-            
-            if ("astar".equals(algorithmLower)) {
-                System.out.println("Using A* algorithm with " + 
-                                (heuristic != null ? heuristic : "manhattan") + " heuristic");
-                AStar astar = new AStar(heuristic != null ? heuristic : "manhattan");
-                solution = astar.solve(coreBoard);
-                nodesVisited = astar.getNodesVisited();
-                executionTime = (long) astar.getExecutionTime();
+        }
+        
+        String algorithmLower = algorithm.toLowerCase().trim();
+        String heuristicName = heuristic != null ? heuristic : "manhattan";
+        Solver solver;
+        
+        if ("astar".equals(algorithmLower)) {
+            Log.debug("Using A* algorithm with " + heuristicName + " heuristic");
+            solver = new AStar(heuristicName);
 
-            } else if ("dijkstra".equals(algorithmLower)) {
-                System.out.println("Using Dijkstra algorithm");
-                Dijkstra dijkstra = new Dijkstra();
-                solution = dijkstra.solve(coreBoard);
-                nodesVisited = dijkstra.getNodesVisited();
-                executionTime = (long) dijkstra.getExecutionTime();
+        } else if ("anytime".equals(algorithmLower)) {
+            Log.debug("Using Anytime A* algorithm with " + heuristicName + " heuristic");
+            solver = new AnytimeAStar(heuristicName);
 
-            } else if ("ucs".equals(algorithmLower)) {
-                System.out.println("Using UCS algorithm");
-                UCS ucs = new UCS(); 
-                solution = ucs.solve(coreBoard);
-                nodesVisited = ucs.getNodesVisited();
-                executionTime = (long) ucs.getExecutionTime();
+        } else if ("portfolio".equals(algorithmLower) || "portfolio-best".equals(algorithmLower)) {
+            PortfolioSolver.Mode mode = "portfolio".equals(algorithmLower)
+                    ? PortfolioSolver.Mode.FIRST : PortfolioSolver.Mode.BEST;
+            Log.debug("Racing portfolio of solvers, mode " + mode);
+            solver = new PortfolioSolver(PortfolioSolver.defaultConfigurations(), mode, portfolioStats);
 
-            } else if ("gbfs".equals(algorithmLower) || "greedy".equals(algorithmLower)) {
-                System.out.println("Using GBFS algorithm with " + 
-                                (heuristic != null ? heuristic : "manhattan") + " heuristic");
-                GBFS gbfs = new GBFS(heuristic != null ? heuristic : "manhattan");
-                solution = gbfs.solve(coreBoard);
-                nodesVisited = gbfs.getNodesVisited();
-                executionTime = (long) gbfs.getExecutionTime();
+        } else if ("dijkstra".equals(algorithmLower)) {
+            Log.debug("Using Dijkstra algorithm");
+            solver = new Dijkstra();
 
-            } else {
-                System.out.println("Unknown algorithm: " + algorithmLower + ". Using A* as fallback");
-                AStar astarFallback = new AStar("manhattan");
-                solution = astarFallback.solve(coreBoard);
-                nodesVisited = astarFallback.getNodesVisited();
-                executionTime = (long) astarFallback.getExecutionTime();
-            }
-            
-            if (solution != null) {
-                System.out.println("Solution found with " + solution.getMoves().size() + " moves!");
-                processAlgorithmSolution(solution);
-                return true;
-            } else {
-                System.out.println("No solution found!");
-                return false;
+        } else if ("ucs".equals(algorithmLower)) {
+            Log.debug("Using UCS algorithm");
+            solver = new UCS();
+
+        } else if ("gbfs".equals(algorithmLower) || "greedy".equals(algorithmLower)) {
+            Log.debug("Using GBFS algorithm with " + heuristicName + " heuristic");
+            solver = new GBFS(heuristicName);
+
+        } else {
+            Log.debug("Unknown algorithm: " + algorithmLower + ". Using A* as fallback");
+            solver = new AStar("manhattan");
+        }
+        
+        SearchResult result = solver.solve(coreBoard, limits);
+        nodesVisited = result.getNodesVisited();
+        executionTime = (long) result.getExecutionTime();
+        
+        if (solver instanceof PortfolioSolver && ((PortfolioSolver) solver).getWinner() != null) {
+            if (Log.isInfo()) {
+                Log.info("Portfolio winner: " + ((PortfolioSolver) solver).getWinner());
+                Log.info(portfolioStats.toString().stripTrailing());
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error solving puzzle: " + e.getMessage());
-            e.printStackTrace();
-            return false;
         }
+        
+        if (result.isSolved()) {
+            Log.info("Solution found with " + result.getSolution().getMoves().size() + " moves!");
+        } else {
+            Log.info("No solution found! Status: " + result.getStatus());
+        }
+        return result;
+    }
+
+    public void applySolution(GameState solution) {
+        solutionMoves = solution.getMoves();
+        processAlgorithmSolution(solution);
     }
 
     private void debugBoard(char[][] board) {
-        System.out.println("DEBUG: Board state (" + board.length + "x" + board[0].length + "):");
+        Log.debug("DEBUG: Board state (" + board.length + "x" + board[0].length + "):");
         for (int i = 0; i < board.length; i++) {
-            System.out.println(new String(board[i]));
+            Log.debug(new String(board[i]));
         }
         
         boolean foundP = false;
@@ -838,37 +882,24 @@ public class Renderer {
             }
         }
         
-        System.out.println("Primary piece (P): " + (foundP ? "Found at [" + pRow + "," + pCol + "]" : "NOT FOUND!"));
-        System.out.println("Primary piece orientation: " + (isHorizontal ? "Horizontal" : "Vertical"));
-        System.out.println("Exit (K): " + (foundK ? "Found at [" + kRow + "," + kCol + "]" : "NOT FOUND!"));
+        Log.debug("Primary piece (P): " + (foundP ? "Found at [" + pRow + "," + pCol + "]" : "NOT FOUND!"));
+        Log.debug("Primary piece orientation: " + (isHorizontal ? "Horizontal" : "Vertical"));
+        Log.debug("Exit (K): " + (foundK ? "Found at [" + kRow + "," + kCol + "]" : "NOT FOUND!"));
         
         if (foundP && foundK) {
             boolean validExit = false;
             if (isHorizontal && kRow == pRow) validExit = true;
             if (!isHorizontal && kCol == pCol) validExit = true;
             
-            System.out.println("Exit alignment with primary piece: " + (validExit ? "Valid" : "INVALID!"));
+            Log.debug("Exit alignment with primary piece: " + (validExit ? "Valid" : "INVALID!"));
         }
     }
 
-    private void debugReadFile(File file) {
-        System.out.println("DEBUG: Reading file " + file.getAbsolutePath());
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            int lineNum = 0;
-            while ((line = reader.readLine()) != null) {
-                System.out.println("Line " + (++lineNum) + ": " + line);
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-        }
-    }
-        
-    private int countNonPrimaryPieces() {
+    private int countNonPrimaryPieces(char[][] board) {
         Set<Character> uniquePieces = new HashSet<>();
-        for (int i = 0; i < currentBoard.length; i++) {
-            for (int j = 0; j < currentBoard[0].length; j++) {
-                char piece = currentBoard[i][j];
+        for (int i = 0; i < board.length; i++) {
+            for (int j = 0; j < board[0].length; j++) {
+                char piece = board[i][j];
                 if (piece != '.' && piece != 'K' && piece != 'P') {
                     uniquePieces.add(piece);
                 }
@@ -878,48 +909,97 @@ public class Renderer {
     }
     
     private void processAlgorithmSolution(GameState solution) {
-        System.out.println("Processing solution with " + solution.getMoves().size() + " moves");
+        Log.debug("Processing solution with " + solution.getMoves().size() + " moves");
         
         solutionSteps.clear();
         currentStepIndex = -1;
         
-        solutionSteps.add(new MoveStep(copyBoard(currentBoard), null, null, 0));
+        resetStepBoards(currentBoard);
+        solutionSteps.add(new MoveStep(null, null, 0));
         
-        char[][] boardState = copyBoard(currentBoard);
         List<Move> moves = solution.getMoves();
         
         for (int i = 0; i < moves.size(); i++) {
             Move move = moves.get(i);
-            char piece = move.getPieceId();
             String direction = convertDirectionToGui(move.getDirection());
-            int steps = 1; 
-            
-            try {
-                java.lang.reflect.Method getStepsMethod = move.getClass().getMethod("getSteps");
-                steps = (int) getStepsMethod.invoke(move);
-            } catch (Exception e) {
-                steps = 1;
-            }
-            
-            System.out.println("Move " + (i+1) + ": " + piece + " " + direction + " " + steps);
-            
-            char[][] newBoardState = copyBoard(boardState);
-            applyMoveToBoard(newBoardState, piece, direction, steps);
-            
-            solutionSteps.add(new MoveStep(newBoardState, piece, direction, steps, i + 1));
-            
-            boardState = newBoardState;
+            solutionSteps.add(new MoveStep(move.getPieceId(), direction, move.getSteps(), i + 1));
         }
         
         totalMoves = moves.size();
     }
     
+    private void resetStepBoards(char[][] board) {
+        firstStepBoard = copyBoard(board);
+        checkpoints.clear();
+        checkpoints.add(firstStepBoard);
+        lastBuiltBoard = null;
+        lastBuiltIndex = -1;
+        
+        // A piece never leaves its row (horizontal) or column (vertical), so that lane is all
+        // applyMoveToBoard has to search
+        pieceLanes.clear();
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                char piece = board[row][col];
+                if (piece == '.' || piece == 'K' || pieceLanes.containsKey(piece)) {
+                    continue;
+                }
+                boolean horizontal = col + 1 < board[row].length && board[row][col + 1] == piece;
+                pieceLanes.put(piece, new int[] {horizontal ? 1 : 0, horizontal ? row : col});
+            }
+        }
+    }
+    
+    // Board after the given step, as a new array the caller may keep
+    private char[][] boardAt(int stepIndex) {
+        int checkpoint = stepIndex / CHECKPOINT_INTERVAL;
+        extendCheckpoints(checkpoint);
+        int from = checkpoint * CHECKPOINT_INTERVAL;
+        char[][] board;
+        if (lastBuiltBoard != null && lastBuiltIndex >= from && lastBuiltIndex <= stepIndex) {
+            from = lastBuiltIndex;
+            board = lastBuiltBoard;
+        } else {
+            board = copyBoard(checkpoints.get(checkpoint));
+        }
+        
+        for (int i = from + 1; i <= stepIndex; i++) {
+            applyStep(board, solutionSteps.get(i));
+        }
+        lastBuiltBoard = board;
+        lastBuiltIndex = stepIndex;
+        return copyBoard(board);
+    }
+    
+    // Checkpoints are only built once playback or a jump gets that far
+    private void extendCheckpoints(int target) {
+        while (checkpoints.size() <= target) {
+            int start = (checkpoints.size() - 1) * CHECKPOINT_INTERVAL;
+            char[][] board = copyBoard(checkpoints.get(checkpoints.size() - 1));
+            for (int i = start + 1; i <= start + CHECKPOINT_INTERVAL; i++) {
+                applyStep(board, solutionSteps.get(i));
+            }
+            checkpoints.add(board);
+        }
+    }
+    
+    private void applyStep(char[][] board, MoveStep step) {
+        applyMoveToBoard(board, step.piece, step.direction, step.steps);
+    }
+    
     private void applyMoveToBoard(char[][] board, char piece, String direction, int steps) {
         List<int[]> pieceCells = new ArrayList<>();
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[0].length; col++) {
-                if (board[row][col] == piece) {
-                    pieceCells.add(new int[]{row, col});
+        int[] lane = pieceLanes.get(piece);
+        if (lane != null && lane[0] == 1) {
+            for (int col = 0; col < board[lane[1]].length; col++) {
+                if (board[lane[1]][col] == piece) {
+                    pieceCells.add(new int[]{lane[1], col});
+                }
+            }
+        } else if (lane != null) {
+            for (int row = 0; row < board.length; row++) {
+                if (board[row][lane[1]] == piece) {
+                    pieceCells.add(new int[]{row, lane[1]});
                 }
             }
         }
@@ -979,9 +1059,11 @@ public class Renderer {
         }
     }
 
-    private void displayMove(MoveStep step) {
-        boardPane.updateBoard(step.board);
-        
+    private void displayMove(int stepIndex) {
+        boardView.updateBoard(boardAt(stepIndex));
+        for (StepChangeListener listener : stepChangeListeners) {
+            listener.onStepChange(currentStepIndex);
+        }
     }
     
     private String convertDirectionToGui(String algorithmDirection) {
@@ -997,7 +1079,7 @@ public class Renderer {
     public void showPreviousMove() {
         if (currentStepIndex > 0) {
             currentStepIndex--;
-            displayMove(solutionSteps.get(currentStepIndex));
+            displayMove(currentStepIndex);
             
         }
     }
@@ -1005,7 +1087,7 @@ public class Renderer {
     public void showNextMove() {
         if (currentStepIndex < solutionSteps.size() - 1) {
             currentStepIndex++;
-            displayMove(solutionSteps.get(currentStepIndex));
+            displayMove(currentStepIndex);
             
         } else {
             animation.stop();
@@ -1014,7 +1096,7 @@ public class Renderer {
     
     public void playAnimation() {
         currentStepIndex = 0;
-        displayMove(solutionSteps.get(0));
+        displayMove(0);
         
         animation.play();
     }
@@ -1026,24 +1108,22 @@ public class Renderer {
     public void jumpToStep(int stepIndex) {
         if (stepIndex >= 0 && stepIndex < solutionSteps.size()) {
             currentStepIndex = stepIndex;
-            displayMove(solutionSteps.get(currentStepIndex));
+            displayMove(currentStepIndex);
             
         }
     }
     
     public class MoveStep {
-        char[][] board;
         Character piece;
         String direction;
         int steps = 1;
         int moveNumber;
         
-        MoveStep(char[][] board, Character piece, String direction, int moveNumber) {
-            this(board, piece, direction, 1, moveNumber);
+        MoveStep(Character piece, String direction, int moveNumber) {
+            this(piece, direction, 1, moveNumber);
         }
         
-        MoveStep(char[][] board, Character piece, String direction, int steps, int moveNumber) {
-            this.board = board;
+        MoveStep(Character piece, String direction, int steps, int moveNumber) {
             this.piece = piece;
             this.direction = direction;
             this.steps = steps;
@@ -1066,7 +1146,13 @@ public class Renderer {
             return;
         }
 
-        try (FileWriter writer = new FileWriter(file)) {
+        SolutionWriter.Format format = formatForFile(file);
+        if (format != null) {
+            saveSolutionInFormat(file, format);
+            return;
+        }
+
+        try (Writer writer = new BufferedWriter(new FileWriter(file), 1 << 16)) {
             // Write header with fancy formatting
             writer.write("╔══════════════════════════════════════════╗\n");
             writer.write("║        Rush Hour Puzzle Solution         ║\n");
@@ -1083,8 +1169,8 @@ public class Renderer {
             
             // Write initial state
             writer.write("Initial State:\n");
-            char[][] initialBoard = solutionSteps.get(0).board;
-            writeBoardWithBorder(writer, initialBoard);
+            char[][] stepBoard = copyBoard(firstStepBoard);
+            writeBoardWithBorder(writer, stepBoard);
             writer.write("\n");
             
             // Write each move
@@ -1102,7 +1188,8 @@ public class Renderer {
                 }
                 writer.write("\n");
                 
-                writeBoardWithBorder(writer, step.board);
+                applyStep(stepBoard, step);
+                writeBoardWithBorder(writer, stepBoard);
                 writer.write("\n");
             }
             
@@ -1110,7 +1197,7 @@ public class Renderer {
             writer.write("End of solution\n");
             writer.write("Generated on: " + java.time.LocalDateTime.now() + "\n");
             
-            System.out.println("Solution saved to: " + file.getAbsolutePath());
+            Log.info("Solution saved to: " + file.getAbsolutePath());
             
             // Show success dialog using the custom dialog instead of Alert
             javafx.application.Platform.runLater(() -> {
@@ -1118,34 +1205,51 @@ public class Renderer {
             });
             
         } catch (IOException e) {
-            System.err.println("Error saving solution: " + e.getMessage());
+            Log.error("Error saving solution: " + e.getMessage());
+            showErrorDialog("Save Error", "Failed to save solution: " + e.getMessage());
+        }
+    }
+
+    // .moves, .json and .rhs files get the machine-readable formats; anything else the report above
+    private static SolutionWriter.Format formatForFile(File file) {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(".moves")) {
+            return SolutionWriter.Format.COMPACT;
+        } else if (name.endsWith(".json") || name.endsWith(".jsonl")) {
+            return SolutionWriter.Format.JSON;
+        } else if (name.endsWith(".rhs")) {
+            return SolutionWriter.Format.BINARY;
+        }
+        return null;
+    }
+
+    private void saveSolutionInFormat(File file, SolutionWriter.Format format) {
+        try (SolutionWriter writer = new SolutionWriter(new FileOutputStream(file), format)) {
+            writer.write(file.getName(), solvedBoard, solutionMoves);
+            Log.info("Solution saved to: " + file.getAbsolutePath());
+            javafx.application.Platform.runLater(() -> {
+                showSuccessDialog("Success", "Solution successfully saved to:\n" + file.getAbsolutePath());
+            });
+        } catch (IOException e) {
+            Log.error("Error saving solution: " + e.getMessage());
             showErrorDialog("Save Error", "Failed to save solution: " + e.getMessage());
         }
     }
 
-    private void writeBoardWithBorder(FileWriter writer, char[][] board) throws IOException {
+    private void writeBoardWithBorder(Writer writer, char[][] board) throws IOException {
         int cols = board[0].length;
-        
-        // Top border
-        writer.write("┌");
+        StringBuilder border = new StringBuilder(cols + 3);
         for (int j = 0; j < cols; j++) {
-            writer.write("─");
+            border.append('─');
         }
-        writer.write("┐\n");
         
-        // Board with left and right borders
+        StringBuilder text = new StringBuilder((board.length + 2) * (cols + 3));
+        text.append('┌').append(border).append("┐\n");
         for (int i = 0; i < board.length; i++) {
-            writer.write("│");
-            writer.write(new String(board[i]));
-            writer.write("│\n");
-        }
-        
-        // Bottom border
-        writer.write("└");
-        for (int j = 0; j < cols; j++) {
-            writer.write("─");
+            text.append('│').append(board[i]).append("│\n");
         }
-        writer.write("┘\n");
+        text.append('└').append(border).append("┘\n");
+        writer.write(text.toString());
     }
 
     /**
@@ -1159,6 +1263,9 @@ public class Renderer {
             case "dijkstra": return "Dijkstra's Algorithm";
             case "gbfs": return "Greedy Best-First Search";
             case "ucs": return "Uniform Cost Search";
+            case "anytime": return "Anytime A*";
+            case "portfolio": return "Portfolio (First Answer)";
+            case "portfolio-best": return "Portfolio (Best Answer)";
             default: return algorithm;
         }
     }
@@ -1208,6 +1315,11 @@ public class Renderer {
         loadPuzzleFromFile(new File(filePath));
     }
     
+    // Copy of the loaded board, for views that draw it on their own
+    public char[][] getBoardSnapshot() {
+        return copyBoard(currentBoard);
+    }
+    
     public int getCurrentStepIndex() {
         return currentStepIndex;
     }
@@ -1215,4 +1327,20 @@ public class Renderer {
     public int getTotalSteps() {
         return solutionSteps.size();
     }
+    
+    // Short label for the timeline, e.g. "A → 2"
+    public String describeStep(int stepIndex) {
+        MoveStep step = solutionSteps.get(stepIndex);
+        if (step.piece == null) {
+            return "Start";
+        }
+        String arrow;
+        switch (step.direction) {
+            case "up": arrow = "↑"; break;
+            case "down": arrow = "↓"; break;
+            case "left": arrow = "←"; break;
+            default: arrow = "→"; break;
+        }
+        return step.piece + " " + arrow + " " + step.steps;
+    }
 }
\ No newline at end of file
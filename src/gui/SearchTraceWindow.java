@@ -0,0 +1,183 @@
+package gui;
+
+import algorithm.SearchTrace;
+import core.Move;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Live view of a running search: a heatmap of how often each piece is moved in the expanded
+// states, and charts of the frontier size and of g and h over the expansions. Events are
+// drained from the SearchTrace on the JavaFX thread a few times per second.
+public class SearchTraceWindow {
+    private static final double CELL_SIZE = 40;
+    private static final int MAX_POINTS = 400;
+
+    private final SearchTrace trace;
+    private final char[][] board;
+    private final Stage stage;
+    private final Canvas heatmap;
+    private final Label summaryLabel;
+    private final XYChart.Series<Number, Number> frontierSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> gSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> hSeries = new XYChart.Series<>();
+    private final Map<Character, Long> moveCounts = new HashMap<>();
+    private final Timeline refresh;
+
+    private long events;
+    private SearchTrace.Event lastEvent;
+
+    public SearchTraceWindow(SearchTrace trace, char[][] board) {
+        this.trace = trace;
+        this.board = board;
+
+        heatmap = new Canvas(board[0].length * CELL_SIZE, board.length * CELL_SIZE);
+
+        summaryLabel = new Label("Waiting for the search...");
+        summaryLabel.getStyleClass().add("stats-label");
+
+        frontierSeries.setName("Frontier size");
+        LineChart<Number, Number> frontierChart = createChart("Nodes expanded", "States");
+        frontierChart.getData().add(frontierSeries);
+
+        gSeries.setName("g");
+        hSeries.setName("h");
+        LineChart<Number, Number> costChart = createChart("Nodes expanded", "Cost");
+        costChart.getData().add(gSeries);
+        costChart.getData().add(hSeries);
+
+        Label heatmapLabel = new Label("Moves per piece");
+        heatmapLabel.getStyleClass().add("control-label");
+        VBox heatmapBox = new VBox(8, heatmapLabel, heatmap, summaryLabel);
+
+        VBox charts = new VBox(10, frontierChart, costChart);
+        HBox root = new HBox(15, heatmapBox, charts);
+        root.setPadding(new Insets(15));
+        root.getStyleClass().add("control-panel");
+
+        stage = new Stage();
+        stage.setTitle("Search Explorer");
+        Scene scene = new Scene(root, 1000, 620);
+        scene.getStylesheets().add(getClass().getResource("style.css").toExternalForm());
+        stage.setScene(scene);
+
+        refresh = new Timeline(new KeyFrame(Duration.millis(200), e -> update()));
+        refresh.setCycleCount(Animation.INDEFINITE);
+        drawHeatmap();
+    }
+
+    private static LineChart<Number, Number> createChart(String xLabel, String yLabel) {
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setLabel(xLabel);
+        xAxis.setForceZeroInRange(false);
+        NumberAxis yAxis = new NumberAxis();
+        yAxis.setLabel(yLabel);
+        LineChart<Number, Number> chart = new LineChart<>(xAxis, yAxis);
+        chart.setCreateSymbols(false);
+        chart.setAnimated(false);
+        chart.setPrefSize(600, 280);
+        return chart;
+    }
+
+    public void show() {
+        stage.show();
+        refresh.play();
+    }
+
+    // Stops polling after a last drain, leaving the final picture on screen
+    public void finish() {
+        refresh.stop();
+        update();
+    }
+
+    private void update() {
+        int drained = trace.drain(event -> {
+            events++;
+            lastEvent = event;
+            Move move = event.getMove();
+            if (move != null) {
+                moveCounts.merge(move.getPieceId(), 1L, Long::sum);
+            }
+            addPoint(frontierSeries, event.getNode(), event.getFrontierSize());
+            addPoint(gSeries, event.getNode(), event.getG());
+            addPoint(hSeries, event.getNode(), event.getH());
+        });
+        if (drained == 0 && lastEvent == null) {
+            return;
+        }
+
+        drawHeatmap();
+        summaryLabel.setText(String.format(
+            "Sampled States: %d (1 in %d)\nDropped: %d\nNodes Expanded: %d\nLast g: %.1f, h: %.1f\nFrontier: %d",
+            events, trace.getSampleInterval(), trace.getDropped(), lastEvent.getNode(),
+            lastEvent.getG(), lastEvent.getH(), lastEvent.getFrontierSize()
+        ));
+    }
+
+    // Keeps every chart at MAX_POINTS by thinning out the older half when it fills up
+    private static void addPoint(XYChart.Series<Number, Number> series, long x, double y) {
+        if (series.getData().size() >= MAX_POINTS) {
+            List<XYChart.Data<Number, Number>> kept = new ArrayList<>();
+            int half = series.getData().size() / 2;
+            for (int i = 0; i < series.getData().size(); i++) {
+                if (i >= half || i % 2 == 1) {
+                    kept.add(series.getData().get(i));
+                }
+            }
+            series.getData().setAll(kept);
+        }
+        series.getData().add(new XYChart.Data<>(x, y));
+    }
+
+    private void drawHeatmap() {
+        GraphicsContext gc = heatmap.getGraphicsContext2D();
+        gc.setFill(Color.web("#fff9e8"));
+        gc.fillRect(0, 0, heatmap.getWidth(), heatmap.getHeight());
+
+        long max = 1;
+        for (long count : moveCounts.values()) {
+            max = Math.max(max, count);
+        }
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        for (int row = 0; row < board.length; row++) {
+            for (int col = 0; col < board[row].length; col++) {
+                char piece = board[row][col];
+                double x = col * CELL_SIZE;
+                double y = row * CELL_SIZE;
+                gc.setStroke(Color.web("#d1c5b5"));
+                gc.strokeRect(x + 1, y + 1, CELL_SIZE - 2, CELL_SIZE - 2);
+                if (piece == '.' || piece == 'K') {
+                    continue;
+                }
+                double heat = moveCounts.getOrDefault(piece, 0L) / (double) max;
+                gc.setFill(Color.web("#F25E59", 0.1 + 0.9 * heat));
+                gc.fillRoundRect(x + 2, y + 2, CELL_SIZE - 4, CELL_SIZE - 4, 8, 8);
+                gc.setFill(Color.web("#725861"));
+                gc.fillText(String.valueOf(piece), x + CELL_SIZE / 2, y + CELL_SIZE / 2 + 5);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package service;
+
+import algorithm.SearchResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// LRU cache of finished search results shared by all requests. Only definitive results
+// (solved or unsolvable) are stored; budget-limited or cancelled runs are not.
+public class SolutionCache {
+    private final int capacity;
+    private final Map<String, SearchResult> entries;
+    private long hits;
+    private long misses;
+
+    public SolutionCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<String, SearchResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchResult> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    public synchronized SearchResult get(String key) {
+        SearchResult result = entries.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    public synchronized void put(String key, SearchResult result) {
+        switch (result.getStatus()) {
+            case SOLVED:
+            case UNSOLVABLE:
+                entries.put(key, result);
+                break;
+            default:
+                break;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,232 @@
+package service;
+
+import algorithm.SearchLimits;
+import algorithm.Solvers;
+import core.Board;
+import core.CostModel;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// A parsed /solve request. The body is either a puzzle in the test/*.txt format
+// (options in the query string or as trailing algorithm/heuristic lines) or a JSON
+// object such as {"rows": 6, "cols": 6, "grid": ["AAB..F", ...], "algorithm": "astar"}.
+public class SolveRequest {
+    private static final Set<String> ALGORITHMS = new HashSet<>(
+            List.of("astar", "compact", "anytime", "dijkstra", "gbfs", "ucs", "portfolio"));
+    private static final Set<String> HEURISTICS = new HashSet<>(
+            List.of("manhattan", "blocking", "combined", "admissible", "pattern"));
+    // Checked before the board is built: the grid is allocated from the client's numbers, and
+    // the search encodes positions in bytes (BoardLayout), so larger boards cannot be solved anyway
+    static final int MAX_DIMENSION = 127;
+    // Grid lines plus an exit line on either side, the header and a few option lines
+    private static final int MAX_LINES = MAX_DIMENSION + 8;
+
+    private final Board board;
+    private final String algorithm;
+    private final String heuristic;
+    private final CostModel costModel;
+    private final long timeLimitMillis;
+    private final long maxNodes;
+    private final long maxMemoryBytes;
+    private final int priority;
+
+    private SolveRequest(Board board, String algorithm, String heuristic, CostModel costModel,
+                         long timeLimitMillis, long maxNodes, long maxMemoryBytes, Integer priority) {
+        this.board = board;
+        this.algorithm = algorithm != null ? algorithm : "astar";
+        this.heuristic = heuristic != null ? heuristic : "manhattan";
+        if (!ALGORITHMS.contains(this.algorithm)) {
+            throw new IllegalArgumentException("Unknown algorithm: " + this.algorithm);
+        }
+        if (!HEURISTICS.contains(this.heuristic)) {
+            throw new IllegalArgumentException("Unknown heuristic: " + this.heuristic);
+        }
+        if (costModel != CostModel.MOVES && !Solvers.supportsCostModel(this.algorithm)) {
+            throw new IllegalArgumentException("Algorithm " + this.algorithm + " only supports the moves cost model");
+        }
+        this.costModel = costModel;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxNodes = maxNodes;
+        this.maxMemoryBytes = maxMemoryBytes;
+        // Smaller puzzles go first by default so a few huge searches cannot block the tiny ones
+        this.priority = priority != null ? priority : board.getPieces().size();
+    }
+
+    public static SolveRequest parse(String body, String contentType, String query) {
+        Map<String, String> params = parseQuery(query);
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            return fromJson(body, params);
+        }
+        return fromText(body, params);
+    }
+
+    private static SolveRequest fromText(String body, Map<String, String> params) {
+        String[] lines = body.split("\r?\n");
+        String algorithm = params.get("algorithm");
+        String heuristic = params.get("heuristic");
+
+        Board board = parseBoard(body, lines);
+        int rows = Integer.parseInt(lines[0].trim().split("\\s+")[0]);
+        for (int i = rows + 2; i < lines.length; i++) {
+            String option = lines[i].trim().toLowerCase();
+            if (algorithm == null && ALGORITHMS.contains(option)) {
+                algorithm = option;
+            } else if (heuristic == null && HEURISTICS.contains(option)) {
+                heuristic = option;
+            }
+        }
+
+        return new SolveRequest(board, lower(algorithm), lower(heuristic),
+                CostModel.fromName(params.get("cost")),
+                parseLong(params.get("timeLimit")), parseLong(params.get("maxNodes")),
+                parseLong(params.get("maxMemory")), parseInteger(params.get("priority")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SolveRequest fromJson(String body, Map<String, String> params) {
+        Object parsed = Json.parse(body);
+        if (!(parsed instanceof Map)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        Map<String, Object> json = (Map<String, Object>) parsed;
+
+        Board board;
+        Object puzzle = json.get("puzzle");
+        if (puzzle instanceof String) {
+            board = parseBoard((String) puzzle, ((String) puzzle).split("\r?\n"));
+        } else if (json.get("grid") instanceof List) {
+            List<Object> grid = (List<Object>) json.get("grid");
+            if (grid.size() > MAX_DIMENSION + 2) {
+                throw new IllegalArgumentException("Grid has more than " + (MAX_DIMENSION + 2) + " lines");
+            }
+            int rows = (int) number(json, "rows", grid.size());
+            int cols = (int) number(json, "cols", 0);
+            if (cols == 0) {
+                throw new IllegalArgumentException("Missing field: cols");
+            }
+            checkDimensions(rows, cols);
+            Set<Character> vehicles = new HashSet<>();
+            StringBuilder text = new StringBuilder();
+            for (Object line : grid) {
+                String row = String.valueOf(line);
+                if (row.length() > MAX_DIMENSION + 2) {
+                    throw new IllegalArgumentException("Grid line longer than " + (MAX_DIMENSION + 2) + " cells");
+                }
+                for (char c : row.toCharArray()) {
+                    if (Character.isLetter(c) && c != 'K' && c != 'P') {
+                        vehicles.add(c);
+                    }
+                }
+                text.append(row).append('\n');
+            }
+            board = Board.parse(rows + " " + cols + "\n" + vehicles.size() + "\n" + text);
+        } else {
+            throw new IllegalArgumentException("Missing field: puzzle or grid");
+        }
+
+        String algorithm = json.get("algorithm") instanceof String
+                ? (String) json.get("algorithm") : params.get("algorithm");
+        String heuristic = json.get("heuristic") instanceof String
+                ? (String) json.get("heuristic") : params.get("heuristic");
+
+        String cost = json.get("cost") instanceof String ? (String) json.get("cost") : params.get("cost");
+
+        return new SolveRequest(board, lower(algorithm), lower(heuristic), CostModel.fromName(cost),
+                (long) number(json, "timeLimit", parseLong(params.get("timeLimit"))),
+                (long) number(json, "maxNodes", parseLong(params.get("maxNodes"))),
+                (long) number(json, "maxMemory", parseLong(params.get("maxMemory"))),
+                json.get("priority") != null ? Integer.valueOf((int) number(json, "priority", 0))
+                        : parseInteger(params.get("priority")));
+    }
+
+    // Puzzle text with its size checked before Board allocates the grid
+    private static Board parseBoard(String text, String[] lines) {
+        if (lines.length > MAX_LINES) {
+            throw new IllegalArgumentException("Puzzle has more than " + MAX_LINES + " lines");
+        }
+        String[] dimensions = lines[0].trim().split("\\s+");
+        if (dimensions.length < 2) {
+            throw new IllegalArgumentException("Missing board dimensions");
+        }
+        checkDimensions(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        return Board.parse(text);
+    }
+
+    private static void checkDimensions(int rows, int cols) {
+        if (rows <= 0 || cols <= 0 || rows > MAX_DIMENSION || cols > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Board must be between 1x1 and " + MAX_DIMENSION + "x"
+                    + MAX_DIMENSION + ", got " + rows + "x" + cols);
+        }
+    }
+
+    private static double number(Map<String, Object> json, String field, double defaultValue) {
+        Object value = json.get(field);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Field " + field + " must be a number");
+        }
+        return (Double) value;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), java.net.URLDecoder.decode(pair.substring(eq + 1),
+                        java.nio.charset.StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static long parseLong(String value) {
+        return value != null ? Long.parseLong(value.trim()) : 0;
+    }
+
+    private static Integer parseInteger(String value) {
+        return value != null ? Integer.valueOf(value.trim()) : null;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.trim().toLowerCase() : null;
+    }
+
+    // Request limits, with the server default applied where the caller gave none and
+    // the server maximum applied as a ceiling
+    public SearchLimits toLimits(long defaultTimeLimitMillis, long maxTimeLimitMillis, long defaultMemoryBytes) {
+        long time = timeLimitMillis > 0 ? Math.min(timeLimitMillis, maxTimeLimitMillis) : defaultTimeLimitMillis;
+        long memory = maxMemoryBytes > 0 ? Math.min(maxMemoryBytes, defaultMemoryBytes) : defaultMemoryBytes;
+        return new SearchLimits(time, maxNodes, memory);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getHeuristic() {
+        return heuristic;
+    }
+
+    public CostModel getCostModel() {
+        return costModel;
+    }
+
+    // Scheduling priority, lower runs first
+    public int getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,154 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Gates CPU-bound search work: at most `permits` search threads run at once, however many
+// request threads are waiting. A request that runs several searches (a portfolio) takes one
+// permit per search. Waiters are served by priority (lower value first) and FIFO within a
+// priority; waiting time slowly raises priority so large jobs cannot starve, and a waiter that
+// needs more permits than are free holds back the ones behind it until enough are released.
+// Uses ReentrantLock instead of synchronized/wait so blocked virtual threads do not pin
+// their carrier thread.
+public class SolveScheduler {
+    private static class Waiter {
+        final int priority;
+        final int count;
+        final long sequence;
+        final long enqueuedAt;
+        final Condition granted;
+        boolean isGranted;
+
+        Waiter(int priority, int count, long sequence, Condition granted) {
+            this.priority = priority;
+            this.count = count;
+            this.sequence = sequence;
+            this.enqueuedAt = System.nanoTime();
+            this.granted = granted;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Waiter> waiting = new ArrayList<>();
+    private final int permits;
+    private final int maxWaiting;
+    private final long agingNanos;
+    private int available;
+    private long sequence;
+
+    public SolveScheduler(int permits, int maxWaiting, long agingMillis) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Scheduler needs at least one permit");
+        }
+        this.permits = permits;
+        this.available = permits;
+        this.maxWaiting = maxWaiting;
+        this.agingNanos = agingMillis * 1_000_000L;
+    }
+
+    // Blocks until a permit is granted; throws RejectedExecutionException when the wait queue is full
+    public void acquire(int priority) throws InterruptedException {
+        acquire(priority, 1);
+    }
+
+    // Takes `count` permits at once, capped at the total so a large request can still run alone
+    public void acquire(int priority, int count) throws InterruptedException {
+        int needed = Math.max(1, Math.min(count, permits));
+        lock.lock();
+        try {
+            if (available >= needed && waiting.isEmpty()) {
+                available -= needed;
+                return;
+            }
+            if (waiting.size() >= maxWaiting) {
+                throw new RejectedExecutionException("Too many requests waiting for a solver slot");
+            }
+            Waiter waiter = new Waiter(priority, needed, sequence++, lock.newCondition());
+            waiting.add(waiter);
+            try {
+                while (!waiter.isGranted) {
+                    waiter.granted.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.isGranted) {
+                    releaseLocked(needed);
+                } else {
+                    waiting.remove(waiter);
+                    grantWaiting();
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        release(1);
+    }
+
+    // Must be given the same count as the matching acquire
+    public void release(int count) {
+        lock.lock();
+        try {
+            releaseLocked(Math.max(1, Math.min(count, permits)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(int count) {
+        available = Math.min(permits, available + count);
+        grantWaiting();
+    }
+
+    private void grantWaiting() {
+        Waiter next = pickNext();
+        while (next != null && next.count <= available) {
+            waiting.remove(next);
+            available -= next.count;
+            next.isGranted = true;
+            next.granted.signal();
+            next = pickNext();
+        }
+    }
+
+    private Waiter pickNext() {
+        long now = System.nanoTime();
+        Waiter best = null;
+        long bestPriority = Long.MAX_VALUE;
+        for (Waiter waiter : waiting) {
+            long effective = waiter.priority - (agingNanos > 0 ? (now - waiter.enqueuedAt) / agingNanos : 0);
+            if (effective < bestPriority || (effective == bestPriority && waiter.sequence < best.sequence)) {
+                best = waiter;
+                bestPriority = effective;
+            }
+        }
+        return best;
+    }
+
+    public int getRunning() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+}
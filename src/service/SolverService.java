@@ -0,0 +1,329 @@
+package service;
+
+import algorithm.PortfolioSolver;
+import algorithm.SearchLimits;
+import algorithm.SearchResult;
+import algorithm.Solver;
+import algorithm.Solvers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import core.Board;
+import core.CanonicalBoard;
+import core.Move;
+import core.SolutionVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Resident solver process. Listens on the loopback interface only and exposes
+//   POST /solve   puzzle as text (test/*.txt format) or JSON, returns moves and stats as JSON
+//   GET  /stats   request, queue and cache counters
+//   GET  /health  liveness check
+// Each request is handled on its own virtual thread (a bounded platform pool on JDKs without
+// them), so idle or waiting callers are cheap. The search itself only runs once the
+// SolveScheduler hands out one of its CPU-sized permits (one per racer for a portfolio), and
+// then on a platform pool of the same size: virtual threads are not preempted, so a search on
+// the request thread would hold a carrier until it finished and starve /health, /stats and new
+// connections. When the wait queue is full the request is rejected with 503 instead of piling up.
+public class SolverService {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_CACHE_CAPACITY = 10_000;
+    private static final long PRIORITY_AGING_MILLIS = 500;
+    private static final int PLATFORM_HANDLER_THREADS = 256;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 10_000;
+    private static final long MAX_TIME_LIMIT_MILLIS = 60_000;
+    // A largest-size board in JSON is under 20 KB
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final SolveScheduler scheduler;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService searchExecutor;
+    private final SolutionCache cache;
+    private final long memoryPerRequest;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    public SolverService(int port, int workerCount, int queueCapacity, int cacheCapacity) throws IOException {
+        this.scheduler = new SolveScheduler(workerCount, queueCapacity, PRIORITY_AGING_MILLIS);
+        this.requestExecutor = newRequestExecutor();
+        this.searchExecutor = Executors.newFixedThreadPool(workerCount, daemonThreads("solver-search"));
+        this.cache = new SolutionCache(cacheCapacity);
+        this.memoryPerRequest = Runtime.getRuntime().maxMemory() / (2L * workerCount);
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/stats", this::handleStats);
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+        server.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        searchExecutor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            respond(exchange, 405, errorJson("Use POST"));
+            return;
+        }
+
+        SolveRequest request;
+        try {
+            String body = readBody(exchange.getRequestBody());
+            request = SolveRequest.parse(body, exchange.getRequestHeaders().getFirst("Content-Type"),
+                    exchange.getRequestURI().getRawQuery());
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            respond(exchange, 400, errorJson("Invalid puzzle: " + e.getMessage()));
+            return;
+        }
+
+        // Cacheable searches run on the canonical board, so mirrored or relabelled copies of a
+        // puzzle share one cache entry; moves are mapped back to the caller's board on the way out.
+        // Boards with more pieces than canonical labels are solved as given and not cached.
+        CanonicalBoard canonical;
+        try {
+            canonical = isCacheable(request) && CanonicalBoard.canLabel(request.getBoard())
+                    ? CanonicalBoard.of(request.getBoard()) : null;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            respond(exchange, 400, errorJson("Invalid puzzle: " + e.getMessage()));
+            return;
+        }
+        String cacheKey = canonical != null ? cacheKey(request, canonical) : null;
+        SearchResult cached = cacheKey != null ? cache.get(cacheKey) : null;
+        if (cached != null) {
+            respond(exchange, 200, resultJson(request, cached, canonical, true));
+            return;
+        }
+
+        SearchLimits limits = request.toLimits(DEFAULT_TIME_LIMIT_MILLIS, MAX_TIME_LIMIT_MILLIS, memoryPerRequest);
+        Solver solver = createSolver(request);
+        int permits = solver instanceof PortfolioSolver ? ((PortfolioSolver) solver).getConfigurationCount() : 1;
+        try {
+            scheduler.acquire(request.getPriority(), permits);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, errorJson("Solver queue is full"));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, errorJson("Interrupted"));
+            return;
+        }
+
+        SearchResult result;
+        try {
+            result = runSearch(solver, canonical != null ? canonical.getBoard() : request.getBoard(), limits);
+        } catch (ExecutionException e) {
+            failed.incrementAndGet();
+            respond(exchange, 500, errorJson("Solver failed: " + e.getCause()));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, errorJson("Interrupted"));
+            return;
+        } finally {
+            scheduler.release(permits);
+        }
+        completed.incrementAndGet();
+
+        // Checked before the result can reach the cache, where a bad solution would be served again
+        if (result.isSolved()) {
+            Board solvedBoard = canonical != null ? canonical.getBoard() : request.getBoard();
+            SolutionVerifier.Result check = new SolutionVerifier().verify(solvedBoard, result.getSolution().getMoves());
+            if (!check.isValid()) {
+                failed.incrementAndGet();
+                respond(exchange, 500, errorJson("Solver returned an invalid solution: " + check));
+                return;
+            }
+        }
+
+        if (cacheKey != null) {
+            cache.put(cacheKey, result);
+        }
+        respond(exchange, 200, resultJson(request, result, canonical, false));
+    }
+
+    // A portfolio's coordinator only polls, so it stays on the request thread and its racers
+    // go to the search pool; any other search runs on the pool while the request thread waits
+    private SearchResult runSearch(Solver solver, Board board, SearchLimits limits)
+            throws ExecutionException, InterruptedException {
+        if (solver instanceof PortfolioSolver) {
+            try {
+                return solver.solve(board, limits);
+            } catch (RuntimeException e) {
+                throw new ExecutionException(e);
+            }
+        }
+        Future<SearchResult> search = searchExecutor.submit(() -> solver.solve(board, limits));
+        try {
+            return search.get();
+        } catch (InterruptedException e) {
+            search.cancel(true);
+            throw e;
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        String json = "{"
+                + "\"requests\":" + requests.get()
+                + ",\"rejected\":" + rejected.get()
+                + ",\"failed\":" + failed.get()
+                + ",\"activeWorkers\":" + scheduler.getRunning()
+                + ",\"queued\":" + scheduler.getWaiting()
+                + ",\"completed\":" + completed.get()
+                + ",\"cacheSize\":" + cache.size()
+                + ",\"cacheHits\":" + cache.getHits()
+                + ",\"cacheMisses\":" + cache.getMisses()
+                + "}";
+        respond(exchange, 200, json);
+    }
+
+    private Solver createSolver(SolveRequest request) {
+        if (request.getAlgorithm().equals("portfolio")) {
+            return new PortfolioSolver(PortfolioSolver.defaultConfigurations(), PortfolioSolver.Mode.FIRST, null,
+                    searchExecutor);
+        }
+        return Solvers.create(request.getAlgorithm(), request.getHeuristic(), request.getCostModel());
+    }
+
+    // Anytime and portfolio answers depend on timing, so only deterministic solvers are cached
+    private static boolean isCacheable(SolveRequest request) {
+        String algorithm = request.getAlgorithm();
+        return !algorithm.equals("anytime") && !algorithm.equals("portfolio");
+    }
+
+    // The cost model is part of the key: a cells-optimal path is not a moves-optimal one
+    private static String cacheKey(SolveRequest request, CanonicalBoard canonical) {
+        String algorithm = request.getAlgorithm();
+        String heuristic = Solvers.usesHeuristic(algorithm) ? request.getHeuristic() : "-";
+        return algorithm + "|" + heuristic + "|" + request.getCostModel().name().toLowerCase() + "|"
+                + canonical.getKey();
+    }
+
+    private static String resultJson(SolveRequest request, SearchResult result, CanonicalBoard canonical,
+                                     boolean cached) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"status\":").append(Json.quote(result.getStatus().name()));
+        json.append(",\"algorithm\":").append(Json.quote(request.getAlgorithm()));
+        json.append(",\"heuristic\":").append(Solvers.usesHeuristic(request.getAlgorithm())
+                ? Json.quote(request.getHeuristic()) : "null");
+        json.append(",\"cost\":").append(Json.quote(request.getCostModel().name().toLowerCase()));
+        if (result.isSolved()) {
+            List<Move> moves = result.getSolution().getMoves();
+            if (canonical != null) {
+                moves = canonical.toOriginal(moves);
+            }
+            json.append(",\"moveCount\":").append(moves.size());
+            json.append(",\"cellCount\":").append(cellCount(moves));
+            json.append(",\"moves\":[");
+            for (int i = 0; i < moves.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(Json.quote(moves.get(i).toString()));
+            }
+            json.append(']');
+        }
+        if (result.getExceededLimit() != null) {
+            json.append(",\"exceededLimit\":").append(Json.quote(result.getExceededLimit()));
+        }
+        json.append(",\"nodesVisited\":").append(result.getNodesVisited());
+        json.append(",\"executionTime\":").append(result.getExecutionTime());
+        json.append(",\"cached\":").append(cached);
+        json.append('}');
+        return json.toString();
+    }
+
+    private static int cellCount(List<Move> moves) {
+        int cells = 0;
+        for (Move move : moves) {
+            cells += move.getSteps();
+        }
+        return cells;
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+            if (buffer.size() > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor only exists from JDK 21 on; older runtimes get a
+    // bounded platform pool so a burst of callers cannot spawn an unbounded number of threads
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(PLATFORM_HANDLER_THREADS, daemonThreads("solver-http"));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_QUEUE_CAPACITY;
+
+        SolverService service = new SolverService(port, workerCount, queueCapacity, DEFAULT_CACHE_CAPACITY);
+        service.start();
+        System.out.println("Solver service listening on http://127.0.0.1:" + service.getPort()
+                + " (" + workerCount + " workers, queue " + queueCapacity + ")");
+    }
+}
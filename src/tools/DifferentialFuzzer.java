@@ -0,0 +1,354 @@
+package tools;
+
+import algorithm.DeadlockAnalyzer;
+import algorithm.PortfolioSolver;
+import algorithm.SearchLimits;
+import algorithm.SearchResult;
+import algorithm.SearchStatus;
+import algorithm.Solvers;
+import core.Board;
+import core.Piece;
+import core.SolutionVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cross-checks optimal solvers on random boards. Every board is solved by the reference
+// engine (UCS, a breadth-first search when every move costs 1) and by each engine under
+// test; they must agree on solvable vs unsolvable and on the optimal move count, and every
+// solution must pass SolutionVerifier. The reference searches without DeadlockAnalyzer's
+// pre-check, and a board the analyzer calls unsolvable must not be solvable. A board on which any engine hits the node limit is
+// counted as inconclusive and skipped. A failing board is shrunk by removing vehicles for as
+// long as it keeps failing, and the smallest version is printed and written to the output
+// directory in the test/*.txt format. By default boards come from
+// PuzzleGenerator.randomExitBoard, which varies the exit side and the primary piece's
+// orientation; --exits right keeps to randomBoard's horizontal primary and right exit.
+//
+// Usage: DifferentialFuzzer [--rows 6] [--cols 6] [--vehicles 4-10] [--boards 1000] [--threads cores]
+//                           [--seed n] [--max-nodes 100000] [--reference ucs] [--exits any|right]
+//                           [--engines astar/admissible,astar/blocking,compact/admissible,compact/blocking,compact/pattern]
+//                           [--out fuzz-failures]
+public class DifferentialFuzzer {
+    private static final String DEFAULT_ENGINES = "astar/admissible,astar/blocking,compact/admissible,compact/blocking,compact/pattern";
+
+    private final PuzzleGenerator generator;
+    private final PortfolioSolver.Configuration reference;
+    private final List<PortfolioSolver.Configuration> engines;
+    private final long maxNodes;
+    private final boolean anyExit;
+
+    private final AtomicLong boards = new AtomicLong();
+    private final AtomicLong inconclusive = new AtomicLong();
+    private final AtomicLongArray engineNodes;
+    private final AtomicLongArray engineNanos;
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+    public DifferentialFuzzer(PuzzleGenerator generator, PortfolioSolver.Configuration reference,
+                              List<PortfolioSolver.Configuration> engines, long maxNodes, boolean anyExit) {
+        this.generator = generator;
+        this.reference = reference;
+        this.engines = engines;
+        this.maxNodes = maxNodes;
+        this.anyExit = anyExit;
+        this.engineNodes = new AtomicLongArray(engines.size() + 1);
+        this.engineNanos = new AtomicLongArray(engines.size() + 1);
+    }
+
+    // Runs every engine on the board; returns a description of the first disagreement, "" if
+    // the board is inconclusive, or null if all engines agree
+    public String compare(Board board, SolutionVerifier verifier) {
+        SearchResult expected = solve(reference, 0, board,
+                new SearchLimits(0, maxNodes, 0).withoutDeadlockCheck());
+        if (!isDefinitive(expected)) {
+            return "";
+        }
+        String deadlock = DeadlockAnalyzer.analyze(board);
+        if (deadlock != null && expected.isSolved()) {
+            return "DeadlockAnalyzer says unsolvable (" + deadlock + "), " + reference + " found "
+                    + moveCount(expected) + " moves";
+        }
+        String problem = checkSolution(reference, board, expected, verifier);
+        if (problem != null) {
+            return problem;
+        }
+
+        for (int i = 0; i < engines.size(); i++) {
+            PortfolioSolver.Configuration engine = engines.get(i);
+            SearchResult actual = solve(engine, i + 1, board, new SearchLimits(0, maxNodes, 0));
+            if (!isDefinitive(actual)) {
+                return "";
+            }
+            if (actual.isSolved() != expected.isSolved()) {
+                return engine + " says " + actual.getStatus() + ", " + reference + " says " + expected.getStatus();
+            }
+            problem = checkSolution(engine, board, actual, verifier);
+            if (problem != null) {
+                return problem;
+            }
+            if (actual.isSolved() && moveCount(actual) != moveCount(expected)) {
+                return engine + " found " + moveCount(actual) + " moves, " + reference + " found "
+                        + moveCount(expected);
+            }
+        }
+        return null;
+    }
+
+    private SearchResult solve(PortfolioSolver.Configuration configuration, int slot, Board board,
+                               SearchLimits limits) {
+        long start = System.nanoTime();
+        SearchResult result = Solvers.create(configuration.getAlgorithm(), configuration.getHeuristic())
+                .solve(board, limits);
+        engineNanos.addAndGet(slot, System.nanoTime() - start);
+        engineNodes.addAndGet(slot, result.getNodesVisited());
+        return result;
+    }
+
+    private static boolean isDefinitive(SearchResult result) {
+        return result.getStatus() == SearchStatus.SOLVED || result.getStatus() == SearchStatus.UNSOLVABLE;
+    }
+
+    private static String checkSolution(PortfolioSolver.Configuration engine, Board board, SearchResult result,
+                                        SolutionVerifier verifier) {
+        if (!result.isSolved()) {
+            return null;
+        }
+        SolutionVerifier.Result check = verifier.verify(board, result.getSolution().getMoves());
+        return check.isValid() ? null : engine + " returned an invalid solution: " + check;
+    }
+
+    private static int moveCount(SearchResult result) {
+        return result.getSolution().getMoves().size();
+    }
+
+    // Removes vehicles one at a time, keeping each removal after which the board still fails,
+    // until no single vehicle can be removed
+    public Board shrink(Board board, SolutionVerifier verifier) {
+        Board smallest = board;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            List<Piece> pieces = smallest.getPieces();
+            for (Piece piece : pieces) {
+                if (piece.isPrimary()) {
+                    continue;
+                }
+                Board candidate = without(smallest, piece.getId());
+                String problem = compare(candidate, verifier);
+                if (problem != null && !problem.isEmpty()) {
+                    smallest = candidate;
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return smallest;
+    }
+
+    private static Board without(Board board, char id) {
+        char[][] grid = board.getGrid();
+        List<Piece> pieces = new ArrayList<>();
+        Piece primary = null;
+        for (Piece piece : board.getPieces()) {
+            if (piece.getId() == id) {
+                for (int[] cell : piece.getOccupiedCells()) {
+                    grid[cell[0]][cell[1]] = '.';
+                }
+                continue;
+            }
+            pieces.add(piece);
+            if (piece.isPrimary()) {
+                primary = piece;
+            }
+        }
+        return new Board(board.getRows(), board.getCols(), grid, pieces, primary, board.getExitRow(),
+                board.getExitCol());
+    }
+
+    public void run(int count, int threads, long seed, Path outputDir) throws IOException, InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        SplittableRandom root = new SplittableRandom(seed);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = root.split();
+            workers.add(executor.submit(() -> {
+                SolutionVerifier verifier = new SolutionVerifier();
+                while (started.incrementAndGet() <= count) {
+                    Board board = null;
+                    while (board == null || board.isSolved()) {
+                        board = anyExit ? generator.randomExitBoard(random) : generator.randomBoard(random);
+                    }
+                    String problem = compare(board, verifier);
+                    boards.incrementAndGet();
+                    if (problem == null) {
+                        continue;
+                    }
+                    if (problem.isEmpty()) {
+                        inconclusive.incrementAndGet();
+                        continue;
+                    }
+                    report(shrink(board, verifier), verifier, outputDir);
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new IOException("Fuzzer worker failed", e.getCause());
+        }
+    }
+
+    private void report(Board board, SolutionVerifier verifier, Path outputDir) throws IOException {
+        String problem = compare(board, verifier);
+        String text = PuzzleFiles.toText(board);
+        int number;
+        synchronized (failures) {
+            failures.add(problem);
+            number = failures.size();
+        }
+        Files.createDirectories(outputDir);
+        PuzzleFiles.write(board, outputDir.resolve(String.format("failure-%03d.txt", number)));
+        synchronized (System.out) {
+            System.out.println("FAILURE " + number + ": " + problem);
+            System.out.print(text);
+        }
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    private static List<PortfolioSolver.Configuration> parseEngines(String list) {
+        List<PortfolioSolver.Configuration> engines = new ArrayList<>();
+        for (String spec : list.split(",")) {
+            engines.add(parseEngine(spec));
+        }
+        return engines;
+    }
+
+    // "algorithm" or "algorithm/heuristic"
+    private static PortfolioSolver.Configuration parseEngine(String spec) {
+        String[] parts = spec.trim().split("/");
+        PortfolioSolver.Configuration engine = new PortfolioSolver.Configuration(parts[0],
+                parts.length > 1 ? parts[1] : null);
+        Solvers.create(engine.getAlgorithm(), engine.getHeuristic());
+        return engine;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rows = 6;
+        int cols = 6;
+        int minVehicles = 4;
+        int maxVehicles = 10;
+        int count = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        long maxNodes = 100_000;
+        PortfolioSolver.Configuration reference;
+        List<PortfolioSolver.Configuration> engines;
+        Path outputDir = Paths.get("fuzz-failures");
+        boolean anyExit = true;
+
+        try {
+            String referenceSpec = "ucs";
+            String engineSpecs = DEFAULT_ENGINES;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rows":
+                        rows = Integer.parseInt(args[++i]);
+                        break;
+                    case "--cols":
+                        cols = Integer.parseInt(args[++i]);
+                        break;
+                    case "--vehicles":
+                        String[] range = args[++i].split("-");
+                        minVehicles = Integer.parseInt(range[0]);
+                        maxVehicles = Integer.parseInt(range[range.length - 1]);
+                        break;
+                    case "--boards":
+                        count = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--max-nodes":
+                        maxNodes = Long.parseLong(args[++i]);
+                        break;
+                    case "--reference":
+                        referenceSpec = args[++i];
+                        break;
+                    case "--engines":
+                        engineSpecs = args[++i];
+                        break;
+                    case "--exits":
+                        String exits = args[++i];
+                        if (!exits.equals("any") && !exits.equals("right")) {
+                            throw new IllegalArgumentException("Unknown exit mode: " + exits);
+                        }
+                        anyExit = exits.equals("any");
+                        break;
+                    case "--out":
+                        outputDir = Paths.get(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            reference = parseEngine(referenceSpec);
+            engines = parseEngines(engineSpecs);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: DifferentialFuzzer [--rows n] [--cols n] [--vehicles min-max] [--boards n]"
+                    + " [--threads n] [--seed n] [--max-nodes n] [--reference alg[/heuristic]] [--exits any|right]"
+                    + " [--engines alg[/heuristic],...] [--out dir]");
+            return;
+        }
+
+        PuzzleGenerator generator = new PuzzleGenerator(rows, cols, minVehicles, maxVehicles, 0, Integer.MAX_VALUE,
+                maxNodes);
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(generator, reference, engines, maxNodes, anyExit);
+        System.out.println("Seed " + seed + ", reference " + reference + ", engines " + engines + ", exits "
+                + (anyExit ? "any" : "right"));
+        long start = System.nanoTime();
+        fuzzer.run(count, threads, seed, outputDir);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Boards: " + fuzzer.boards.get() + " in " + String.format("%.1f", seconds) + " s ("
+                + String.format("%.0f", fuzzer.boards.get() / seconds) + " per second), inconclusive: "
+                + fuzzer.inconclusive.get());
+        List<PortfolioSolver.Configuration> all = new ArrayList<>();
+        all.add(reference);
+        all.addAll(engines);
+        for (int i = 0; i < all.size(); i++) {
+            double engineSeconds = fuzzer.engineNanos.get(i) / 1e9;
+            System.out.println(String.format("  %-20s %12d nodes %8.1f s %12.0f nodes/s", all.get(i),
+                    fuzzer.engineNodes.get(i), engineSeconds, fuzzer.engineNodes.get(i) / Math.max(engineSeconds, 1e-9)));
+        }
+        System.out.println("Failures: " + fuzzer.getFailures().size()
+                + (fuzzer.getFailures().isEmpty() ? "" : " (boards written to " + outputDir + ")"));
+        if (!fuzzer.getFailures().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
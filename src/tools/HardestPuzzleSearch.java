@@ -0,0 +1,264 @@
+package tools;
+
+import algorithm.OffHeapStateSet;
+import core.Board;
+import core.BoardLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Finds the hardest configurations of a piece layout. The layout (board size, exit, and each
+// vehicle's length and lane) is taken from a puzzle file; the vehicles' positions in that file
+// are ignored. Every solved placement is enumerated and used as a source for one breadth-first
+// search over the reversible move graph, so the last layer reached holds the states farthest
+// from any solution. Layers are expanded in parallel; visited states go into sharded off-heap
+// sets so the heap holds only the current frontier.
+//
+// Usage: HardestPuzzleSearch <puzzle file> [--threads cores] [--memory 1024] [--top 10] [--out hardest]
+public class HardestPuzzleSearch {
+    private static final int SHARDS = 64;
+
+    // Packed states stored back to back
+    private static class StateList {
+        final int stateSize;
+        byte[] data;
+        int count;
+
+        StateList(int stateSize) {
+            this.stateSize = stateSize;
+            this.data = new byte[stateSize * 1024];
+        }
+
+        void add(byte[] state) {
+            if ((count + 1) * stateSize > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            System.arraycopy(state, 0, data, count * stateSize, stateSize);
+            count++;
+        }
+
+        void get(int index, byte[] into) {
+            System.arraycopy(data, index * stateSize, into, 0, stateSize);
+        }
+    }
+
+    private final Board board;
+    private final int threads;
+    private final long memoryBytes;
+    private final OffHeapStateSet[] visited = new OffHeapStateSet[SHARDS];
+
+    private int distance;
+    private long statesReached;
+    private long solvedStates;
+    private boolean truncated;
+    private StateList farthest;
+
+    public HardestPuzzleSearch(Board board, int threads, long memoryBytes) {
+        this.board = board;
+        this.threads = threads;
+        this.memoryBytes = memoryBytes;
+    }
+
+    public void run() throws InterruptedException, ExecutionException {
+        int stateSize = new BoardLayout(board).getStateSize();
+        for (int i = 0; i < SHARDS; i++) {
+            visited[i] = new OffHeapStateSet(stateSize, 1024, OffHeapStateSet.DEFAULT_MAX_LOAD,
+                    OffHeapStateSet.DEFAULT_GROWTH_FACTOR, null);
+        }
+
+        StateList frontier = new StateList(stateSize);
+        new BoardLayout(board).forEachGoalState(state -> {
+            if (insert(state)) {
+                frontier.add(state);
+            }
+        });
+        solvedStates = frontier.count;
+        statesReached = frontier.count;
+        distance = 0;
+        farthest = frontier;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            StateList current = frontier;
+            while (current.count > 0) {
+                if (usedMemory() > memoryBytes) {
+                    truncated = true;
+                    break;
+                }
+                StateList next = expand(executor, current);
+                if (next.count == 0) {
+                    break;
+                }
+                distance++;
+                statesReached += next.count;
+                farthest = next;
+                current = next;
+            }
+        } finally {
+            executor.shutdown();
+            for (OffHeapStateSet set : visited) {
+                set.close();
+            }
+        }
+    }
+
+    // Splits the layer into one slice per thread; each slice gets its own BoardLayout because
+    // the layout's scratch buffers are not thread-safe
+    private StateList expand(ExecutorService executor, StateList layer)
+            throws InterruptedException, ExecutionException {
+        int slices = Math.min(threads, layer.count);
+        List<Future<StateList>> results = new ArrayList<>();
+        for (int t = 0; t < slices; t++) {
+            int from = (int) ((long) layer.count * t / slices);
+            int to = (int) ((long) layer.count * (t + 1) / slices);
+            results.add(executor.submit(() -> {
+                BoardLayout layout = new BoardLayout(board);
+                StateList found = new StateList(layer.stateSize);
+                byte[] state = new byte[layer.stateSize];
+                for (int i = from; i < to; i++) {
+                    layer.get(i, state);
+                    layout.forEachSuccessor(state, (successor, piece, delta) -> {
+                        if (insert(successor)) {
+                            found.add(successor);
+                        }
+                    });
+                }
+                return found;
+            }));
+        }
+
+        StateList next = new StateList(layer.stateSize);
+        for (Future<StateList> result : results) {
+            StateList part = result.get();
+            byte[] state = new byte[layer.stateSize];
+            for (int i = 0; i < part.count; i++) {
+                part.get(i, state);
+                next.add(state);
+            }
+        }
+        return next;
+    }
+
+    private boolean insert(byte[] state) {
+        OffHeapStateSet shard = visited[shardOf(state)];
+        synchronized (shard) {
+            return shard.add(state);
+        }
+    }
+
+    private static int shardOf(byte[] state) {
+        int hash = 0;
+        for (byte b : state) {
+            hash = 31 * hash + b;
+        }
+        return (hash ^ (hash >>> 7)) & (SHARDS - 1);
+    }
+
+    private long usedMemory() {
+        long bytes = 0;
+        for (OffHeapStateSet set : visited) {
+            synchronized (set) {
+                bytes += set.capacity() * (long) (farthest.stateSize + 1);
+            }
+        }
+        return bytes;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    public long getStatesReached() {
+        return statesReached;
+    }
+
+    public long getSolvedStates() {
+        return solvedStates;
+    }
+
+    // True when the memory budget stopped the search before the graph was exhausted
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public List<Board> getFarthestBoards(int limit) {
+        BoardLayout layout = new BoardLayout(board);
+        List<Board> boards = new ArrayList<>();
+        byte[] state = new byte[farthest.stateSize];
+        for (int i = 0; i < farthest.count && boards.size() < limit; i++) {
+            farthest.get(i, state);
+            boards.add(layout.decode(state));
+        }
+        return boards;
+    }
+
+    public int getFarthestCount() {
+        return farthest.count;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        String file = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long memoryMb = 1024;
+        int top = 10;
+        Path outputDir = Paths.get("hardest");
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--memory":
+                        memoryMb = Long.parseLong(args[++i]);
+                        break;
+                    case "--top":
+                        top = Integer.parseInt(args[++i]);
+                        break;
+                    case "--out":
+                        outputDir = Paths.get(args[++i]);
+                        break;
+                    default:
+                        file = args[i];
+                        break;
+                }
+            }
+            if (file == null) {
+                throw new IllegalArgumentException("Missing puzzle file");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: HardestPuzzleSearch <puzzle file> [--threads n] [--memory mb] [--top n]"
+                    + " [--out dir]");
+            return;
+        }
+
+        HardestPuzzleSearch search = new HardestPuzzleSearch(new Board(file), threads, memoryMb * 1024 * 1024);
+        long start = System.nanoTime();
+        search.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Solved states: " + search.getSolvedStates());
+        System.out.println("States reached: " + search.getStatesReached());
+        System.out.println("Maximum distance: " + search.getDistance() + " moves"
+                + (search.isTruncated() ? " (memory budget reached, search incomplete)" : ""));
+        System.out.println("States at maximum distance: " + search.getFarthestCount());
+        System.out.println("Time: " + String.format("%.1f", seconds) + " s");
+
+        Files.createDirectories(outputDir);
+        List<Board> boards = search.getFarthestBoards(top);
+        for (int i = 0; i < boards.size(); i++) {
+            Path out = outputDir.resolve(String.format("hardest-m%d-%03d.txt", search.getDistance(), i + 1));
+            PuzzleFiles.write(boards.get(i), out);
+        }
+        System.out.println("Wrote " + boards.size() + " boards to " + outputDir);
+    }
+}
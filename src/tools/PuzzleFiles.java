@@ -0,0 +1,44 @@
+package tools;
+
+import core.Board;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes boards in the test/*.txt input format
+public class PuzzleFiles {
+    private PuzzleFiles() {
+    }
+
+    public static String toText(Board board) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        char[][] grid = board.getGrid();
+        StringBuilder text = new StringBuilder();
+        text.append(rows).append(' ').append(cols).append('\n');
+        text.append(board.getPieces().size() - 1).append('\n');
+        for (int i = 0; i < rows; i++) {
+            text.append(grid[i]);
+            if (i == board.getExitRow() && board.getExitCol() == cols) {
+                text.append('K');
+            }
+            text.append('\n');
+        }
+        if (board.getExitRow() == rows) {
+            for (int j = 0; j < board.getExitCol(); j++) {
+                text.append(' ');
+            }
+            text.append("K\n");
+        }
+        return text.toString();
+    }
+
+    public static void write(Board board, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(toText(board));
+        }
+    }
+}
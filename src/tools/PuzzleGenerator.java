@@ -0,0 +1,343 @@
+package tools;
+
+import algorithm.CompactAStar;
+import algorithm.SearchLimits;
+import algorithm.SearchResult;
+import core.Board;
+import core.CanonicalBoard;
+import core.Piece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Generates random solvable puzzles whose optimal solution length falls in a given band.
+// Every worker thread places random vehicles, solves the board optimally with CompactAStar
+// using the admissible blocking heuristic, and keeps it if the move count is in range and no
+// symmetric copy (see CanonicalBoard) was produced before. Accepted boards are written to the
+// output directory in the test/*.txt format.
+//
+// Usage: PuzzleGenerator [--rows 6] [--cols 6] [--vehicles 8-13] [--min-moves 10] [--max-moves 60]
+//                        [--count 1000] [--threads cores] [--seed n] [--max-nodes 200000] [--out generated]
+public class PuzzleGenerator {
+    private static final String LABELS = "ABCDEFGHIJLMNOQRSTUVWXYZ";
+    private static final int PLACEMENT_ATTEMPTS = 50;
+
+    private final int rows;
+    private final int cols;
+    private final int minVehicles;
+    private final int maxVehicles;
+    private final int minMoves;
+    private final int maxMoves;
+    private final long maxNodes;
+
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicLong candidates = new AtomicLong();
+    private final AtomicLong unsolvable = new AtomicLong();
+    private final AtomicLong outOfBand = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    public PuzzleGenerator(int rows, int cols, int minVehicles, int maxVehicles, int minMoves, int maxMoves,
+                           long maxNodes) {
+        if (rows < 2 || cols < 3) {
+            throw new IllegalArgumentException("Board must be at least 2x3");
+        }
+        if (minVehicles > maxVehicles || maxVehicles > LABELS.length()) {
+            throw new IllegalArgumentException("Vehicle count must be between 0 and " + LABELS.length());
+        }
+        if (minMoves > maxMoves) {
+            throw new IllegalArgumentException("Minimum moves exceed maximum moves");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.minVehicles = minVehicles;
+        this.maxVehicles = maxVehicles;
+        this.minMoves = minMoves;
+        this.maxMoves = maxMoves;
+        this.maxNodes = maxNodes;
+    }
+
+    // Random board, or null if the vehicles could not all be placed
+    public Board randomBoard(SplittableRandom random) {
+        char[][] grid = new char[rows][cols];
+        for (char[] row : grid) {
+            Arrays.fill(row, '.');
+        }
+        List<Piece> pieces = new ArrayList<>();
+
+        int exitRow = random.nextInt(rows);
+        int primaryCol = random.nextInt(cols - 2);
+        Piece primary = new Piece('P', exitRow, primaryCol, 2, true, true);
+        place(grid, primary);
+        pieces.add(primary);
+
+        int vehicles = minVehicles + random.nextInt(maxVehicles - minVehicles + 1);
+        for (int v = 0; v < vehicles; v++) {
+            Piece piece = null;
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS && piece == null; attempt++) {
+                piece = tryPlace(grid, random, LABELS.charAt(v), exitRow);
+            }
+            if (piece == null) {
+                return null;
+            }
+            place(grid, piece);
+            pieces.add(piece);
+        }
+        return new Board(rows, cols, grid, pieces, primary, exitRow, cols);
+    }
+
+    // Like randomBoard, but the primary piece may also be vertical and the exit may be below
+    // the grid or a K on any cell of the primary's lane, which covers left and top exits too.
+    // Cars may share the primary's lane, so some of these boards are unsolvable. Returns null
+    // if the primary piece or the vehicles could not be placed.
+    public Board randomExitBoard(SplittableRandom random) {
+        char[][] grid = new char[rows][cols];
+        for (char[] row : grid) {
+            Arrays.fill(row, '.');
+        }
+        List<Piece> pieces = new ArrayList<>();
+
+        boolean horizontal = random.nextBoolean();
+        int laneLength = horizontal ? cols : rows;
+        int lane = random.nextInt(horizontal ? rows : cols);
+        // Exit position along the lane; laneLength is just outside the grid (right or bottom)
+        int exit;
+        switch (random.nextInt(3)) {
+            case 0:
+                exit = laneLength;
+                break;
+            case 1:
+                exit = 0;
+                break;
+            default:
+                exit = random.nextInt(laneLength);
+                break;
+        }
+        int exitRow = horizontal ? lane : exit;
+        int exitCol = horizontal ? exit : lane;
+        if (exit < laneLength) {
+            grid[exitRow][exitCol] = 'K';
+        }
+
+        List<Integer> starts = new ArrayList<>();
+        for (int start = 0; start + 2 <= laneLength; start++) {
+            if (exit < start || exit >= start + 2) {
+                starts.add(start);
+            }
+        }
+        if (starts.isEmpty()) {
+            return null;
+        }
+        int start = starts.get(random.nextInt(starts.size()));
+        Piece primary = new Piece('P', horizontal ? lane : start, horizontal ? start : lane, 2, horizontal, true);
+        place(grid, primary);
+        pieces.add(primary);
+
+        int vehicles = minVehicles + random.nextInt(maxVehicles - minVehicles + 1);
+        for (int v = 0; v < vehicles; v++) {
+            Piece piece = null;
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS && piece == null; attempt++) {
+                piece = tryPlace(grid, random, LABELS.charAt(v), -1);
+            }
+            if (piece == null) {
+                return null;
+            }
+            place(grid, piece);
+            pieces.add(piece);
+        }
+        return new Board(rows, cols, grid, pieces, primary, exitRow, exitCol);
+    }
+
+    // exitRow is -1 when horizontal cars may also go in the primary piece's row
+    private Piece tryPlace(char[][] grid, SplittableRandom random, char id, int exitRow) {
+        int size = random.nextInt(4) == 0 ? 3 : 2;
+        boolean horizontal = random.nextBoolean();
+        int row;
+        int col;
+        if (horizontal) {
+            if (size > cols) {
+                return null;
+            }
+            row = random.nextInt(rows);
+            col = random.nextInt(cols - size + 1);
+            // A horizontal car in the exit row can never get out of the way
+            if (row == exitRow) {
+                return null;
+            }
+        } else {
+            if (size > rows) {
+                return null;
+            }
+            row = random.nextInt(rows - size + 1);
+            col = random.nextInt(cols);
+        }
+        Piece piece = new Piece(id, row, col, size, horizontal, false);
+        for (int[] cell : piece.getOccupiedCells()) {
+            if (grid[cell[0]][cell[1]] != '.') {
+                return null;
+            }
+        }
+        return piece;
+    }
+
+    private static void place(char[][] grid, Piece piece) {
+        for (int[] cell : piece.getOccupiedCells()) {
+            grid[cell[0]][cell[1]] = piece.getId();
+        }
+    }
+
+    // Optimal solution length of an accepted board, or -1 if the board is rejected
+    public int evaluate(Board board) {
+        candidates.incrementAndGet();
+        if (board.isSolved()) {
+            outOfBand.incrementAndGet();
+            return -1;
+        }
+        SearchResult result = new CompactAStar("blocking").solve(board, new SearchLimits(0, maxNodes, 0));
+        if (!result.isSolved()) {
+            unsolvable.incrementAndGet();
+            return -1;
+        }
+        int moves = result.getSolution().getMoves().size();
+        if (moves < minMoves || moves > maxMoves) {
+            outOfBand.incrementAndGet();
+            return -1;
+        }
+        if (!seen.add(CanonicalBoard.of(board).getKey())) {
+            duplicates.incrementAndGet();
+            return -1;
+        }
+        return moves;
+    }
+
+    public int generate(int count, int threads, long seed, Path outputDir) throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        AtomicInteger accepted = new AtomicInteger();
+        SplittableRandom root = new SplittableRandom(seed);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = root.split();
+            workers.add(executor.submit(() -> {
+                while (accepted.get() < count) {
+                    Board board = randomBoard(random);
+                    if (board == null) {
+                        continue;
+                    }
+                    int moves = evaluate(board);
+                    if (moves < 0) {
+                        continue;
+                    }
+                    int number = accepted.incrementAndGet();
+                    if (number > count) {
+                        break;
+                    }
+                    Path file = outputDir.resolve(String.format("puzzle-%05d-m%d.txt", number, moves));
+                    try {
+                        PuzzleFiles.write(board, file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new IOException("Generator worker failed", e.getCause());
+        }
+        return Math.min(count, accepted.get());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rows = 6;
+        int cols = 6;
+        int minVehicles = 8;
+        int maxVehicles = 13;
+        int minMoves = 10;
+        int maxMoves = 60;
+        int count = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        long maxNodes = 200_000;
+        Path outputDir = Paths.get("generated");
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rows":
+                        rows = Integer.parseInt(args[++i]);
+                        break;
+                    case "--cols":
+                        cols = Integer.parseInt(args[++i]);
+                        break;
+                    case "--vehicles":
+                        String[] range = args[++i].split("-");
+                        minVehicles = Integer.parseInt(range[0]);
+                        maxVehicles = Integer.parseInt(range[range.length - 1]);
+                        break;
+                    case "--min-moves":
+                        minMoves = Integer.parseInt(args[++i]);
+                        break;
+                    case "--max-moves":
+                        maxMoves = Integer.parseInt(args[++i]);
+                        break;
+                    case "--count":
+                        count = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--max-nodes":
+                        maxNodes = Long.parseLong(args[++i]);
+                        break;
+                    case "--out":
+                        outputDir = Paths.get(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Usage: PuzzleGenerator [--rows n] [--cols n] [--vehicles min-max] [--min-moves n]"
+                    + " [--max-moves n] [--count n] [--threads n] [--seed n] [--max-nodes n] [--out dir]");
+            return;
+        }
+
+        PuzzleGenerator generator = new PuzzleGenerator(rows, cols, minVehicles, maxVehicles, minMoves, maxMoves,
+                maxNodes);
+        long start = System.nanoTime();
+        int written = generator.generate(count, threads, seed, outputDir);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Wrote " + written + " puzzles to " + outputDir + " in " + String.format("%.1f", seconds)
+                + " s (" + String.format("%.0f", written / seconds * 60) + " per minute)");
+        System.out.println("Candidates: " + generator.candidates.get()
+                + ", unsolvable or too hard: " + generator.unsolvable.get()
+                + ", outside band: " + generator.outOfBand.get()
+                + ", duplicates: " + generator.duplicates.get());
+    }
+}